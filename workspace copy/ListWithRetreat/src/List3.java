@@ -1,5 +1,7 @@
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import components.list.List;
 import components.list.ListSecondary;
@@ -9,7 +11,16 @@ import components.list.ListSecondary;
  * implementations of primary methods and {@code retreat} secondary method.
  *
  * <p>
- * Execution-time performance of all methods implemented in this class is O(1).
+ * Execution-time performance of all methods implemented in this class is O(1)
+ * (except for {@code jumpTo}, as described there).
+ * </p>
+ *
+ * <p>
+ * Each list keeps up to {@code POOL_CAPACITY} removed nodes (or as many as
+ * given to its constructor) on a free list and reuses them for later
+ * insertions, and {@code clear} and {@code transferFrom} reuse the existing
+ * "smart" nodes, so queue-like churn (adding at one end, removing at the
+ * other) allocates no nodes once the list has warmed up.
  * </p>
  *
  * @param <T>
@@ -28,7 +39,11 @@ import components.list.ListSecondary;
  * [for every node n in the doubly linked list of nodes, except the one
  *  pointed to by $this.preStart, n.previous.next = n]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.postFinish, n.next.previous = n]
+ *  pointed to by $this.postFinish, n.next.previous = n]  and
+ * [$this.freeList points to the first node of a singly linked list (through
+ *  next) containing $this.freeCount nodes, none of them in the doubly linked
+ *  list]  and
+ * $this.freeCount <= $this.poolCapacity
  * </pre>
  * @correspondence <pre>
  * this =
@@ -44,9 +59,72 @@ import components.list.ListSecondary;
 public class List3<T> extends ListSecondary<T> {
 
     /**
-     * Node class for doubly linked list nodes.
+     * Levels of convention checking for {@code List3}; they only matter when
+     * assertion checking is enabled, since {@code conventionHolds} is only
+     * ever called from {@code assert} statements.
      */
-    private final class Node {
+    public enum Checking {
+
+        /**
+         * Check the convention on every call.
+         */
+        FULL,
+
+        /**
+         * Check the convention on one call out of every
+         * {@code SAMPLE_PERIOD} calls on the same list.
+         */
+        SAMPLED,
+
+        /**
+         * Never check the convention.
+         */
+        OFF
+
+    }
+
+    /**
+     * Name of the system property used to pick the initial checking level.
+     */
+    public static final String CHECKING_PROPERTY = "List3.checking";
+
+    /**
+     * Number of calls to {@code conventionHolds} per actual check when the
+     * checking level is {@code SAMPLED}.
+     */
+    private static final int SAMPLE_PERIOD = 64;
+
+    /**
+     * Distance, in nodes, between consecutive checkpoints used by
+     * {@code jumpTo}.
+     */
+    private static final int CHECKPOINT_SPACING = 32;
+
+    /**
+     * Maximum number of removed nodes kept for reuse by a list constructed
+     * without an explicit pool capacity.
+     */
+    private static final int POOL_CAPACITY = 64;
+
+    /**
+     * Smallest number of entries a {@code List3Spliterator} will split.
+     */
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    /**
+     * Current checking level, shared by all {@code List3} objects.
+     */
+    private static volatile Checking checking = initialChecking();
+
+    /**
+     * Node class for doubly linked list nodes. It is a static nested class, so
+     * a node holds no reference to the list it was created by, and nodes can
+     * be relinked from one list into another.
+     *
+     * @param <T>
+     *            type of {@code List} entries
+     */
+    private static final class Node<T> {
 
         /**
          * Data in node, or, if this is a "smart" Node, irrelevant.
@@ -57,30 +135,30 @@ public class List3<T> extends ListSecondary<T> {
          * Next node in doubly linked list, or, if this is a trailing "smart"
          * Node, irrelevant.
          */
-        private Node next;
+        private Node<T> next;
 
         /**
          * Previous node in doubly linked list, or, if this is a leading "smart"
          * Node, irrelevant.
          */
-        private Node previous;
+        private Node<T> previous;
 
     }
 
     /**
      * "Smart node" before start node of doubly linked list.
      */
-    private Node preStart;
+    private Node<T> preStart;
 
     /**
      * Last node of doubly linked list in this.left.
      */
-    private Node lastLeft;
+    private Node<T> lastLeft;
 
     /**
      * "Smart node" after finish node of linked list.
      */
-    private Node postFinish;
+    private Node<T> postFinish;
 
     /**
      * Length of this.left.
@@ -92,10 +170,127 @@ public class List3<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * Calls to {@code conventionHolds} since the last actual check, used when
+     * the checking level is {@code SAMPLED}.
+     */
+    private int callsSinceCheck;
+
+    /**
+     * Number of times {@code conventionHolds} has actually walked the
+     * representation of this list.
+     */
+    private int checksDone;
+
+    /**
+     * Checkpoints for {@code jumpTo}: entry i is the node at position
+     * (i * CHECKPOINT_SPACING) of the doubly linked list, counting
+     * $this.preStart as position 0; null whenever it may not reflect the
+     * current doubly linked list, so that it never holds on to removed nodes
+     * (every method that adds or removes nodes sets it to null).
+     */
+    private Node<T>[] checkpoints;
+
+    /**
+     * First node of the free list of removed nodes available for reuse, or
+     * null if there are none.
+     */
+    private Node<T> freeList;
+
+    /**
+     * Number of nodes on the free list.
+     */
+    private int freeCount;
+
+    /**
+     * Maximum number of nodes on the free list.
+     */
+    private final int poolCapacity;
+
+    /**
+     * Sets the level of convention checking for all {@code List3} objects.
+     *
+     * @param level
+     *            the new checking level
+     * @ensures List3.checking() = level
+     */
+    public static void setChecking(Checking level) {
+        assert level != null : "Violation of: level is not null";
+        checking = level;
+    }
+
+    /**
+     * Reports the level of convention checking for all {@code List3} objects.
+     *
+     * @return the current checking level
+     */
+    public static Checking checking() {
+        return checking;
+    }
+
+    /**
+     * Reports the checking level named by the {@code CHECKING_PROPERTY} system
+     * property, ignoring case, or {@code FULL} if the property is not set or
+     * does not name a level.
+     *
+     * @return the initial checking level
+     */
+    private static Checking initialChecking() {
+        String name = System.getProperty(CHECKING_PROPERTY);
+        Checking level = Checking.FULL;
+        if (name != null) {
+            for (Checking c : Checking.values()) {
+                if (c.name().equalsIgnoreCase(name.trim())) {
+                    level = c;
+                }
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Reports how many times {@code conventionHolds} has actually walked the
+     * representation of {@code this}; for testing the checking levels.
+     *
+     * @return the number of convention checks done on this list
+     */
+    final int conventionChecks() {
+        return this.checksDone;
+    }
+
+    /**
+     * Reports whether this call to {@code conventionHolds} should actually walk
+     * the representation, according to the current checking level.
+     *
+     * @return true if the convention should be checked on this call
+     * @updates this.callsSinceCheck
+     */
+    private boolean checkIsDue() {
+        boolean due;
+        Checking level = checking;
+        if (level == Checking.FULL) {
+            due = true;
+        } else if (level == Checking.SAMPLED) {
+            this.callsSinceCheck++;
+            due = this.callsSinceCheck >= SAMPLE_PERIOD;
+            if (due) {
+                this.callsSinceCheck = 0;
+            }
+        } else {
+            due = false;
+        }
+        return due;
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
      *
+     * <p>
+     * The walk is skipped (and true returned) on calls where
+     * {@code checkIsDue} says no check is due.
+     * </p>
+     *
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
      * @convention <pre>
@@ -112,10 +307,19 @@ public class List3<T> extends ListSecondary<T> {
      * [for every node n in the doubly linked list of nodes, except the one
      *  pointed to by $this.preStart, n.previous.next = n]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.postFinish, n.next.previous = n]
+     *  pointed to by $this.postFinish, n.next.previous = n]  and
+     * [$this.freeList points to the first node of a singly linked list (through
+     *  next) containing $this.freeCount nodes, none of them in the doubly linked
+     *  list]  and
+     * $this.freeCount <= $this.poolCapacity
      * </pre>
      */
     private boolean conventionHolds() {
+        if (!this.checkIsDue()) {
+            return true;
+        }
+        this.checksDone++;
+
         assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
         assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
         assert this.preStart != null : "Violation of: $this.preStart is not null";
@@ -124,7 +328,7 @@ public class List3<T> extends ListSecondary<T> {
 
         int count = 0;
         boolean lastLeftFound = false;
-        Node n = this.preStart;
+        Node<T> n = this.preStart;
         while ((count < this.leftLength + this.rightLength + 1)
                 && (n != this.postFinish)) {
             count++;
@@ -168,17 +372,35 @@ public class List3<T> extends ListSecondary<T> {
                 + "Violation of: [$this.postFinish points to the last"
                 + " node in that doubly linked list]";
 
+        assert this.freeCount <= this.poolCapacity : ""
+                + "Violation of: $this.freeCount <= $this.poolCapacity";
+        int free = 0;
+        Node<T> f = this.freeList;
+        while ((free <= this.freeCount) && (f != null)) {
+            assert (f != this.preStart) && (f != this.postFinish) : ""
+                    + "Violation of: [no node on the free list is in the"
+                    + " doubly linked list]";
+            free++;
+            f = f.next;
+        }
+        assert free == this.freeCount : ""
+                + "Violation of: [$this.freeList points to the first node of"
+                + " a singly linked list containing $this.freeCount nodes]";
+
         return true;
     }
 
     /**
-     * Creator of initial representation.
+     * Creator of initial representation. The "smart" nodes are reused if they
+     * already exist; the free list is left as it is.
      */
     private void createNewRep() {
 
-        //Initialize start and finish nodes
-        this.preStart = new Node();
-        this.postFinish = new Node();
+        //Initialize start and finish nodes, unless there are some to reuse
+        if (this.preStart == null) {
+            this.preStart = new Node<T>();
+            this.postFinish = new Node<T>();
+        }
 
         //Set the next and last nodes
         this.preStart.next = this.postFinish;
@@ -189,12 +411,71 @@ public class List3<T> extends ListSecondary<T> {
         this.leftLength = 0;
         this.rightLength = 0;
 
+        //Drop any checkpoints into the old list
+        this.checkpoints = null;
+
+    }
+
+    /**
+     * Returns a node holding {@code x}, taken from the free list if possible.
+     *
+     * @param x
+     *            the data for the node
+     * @return a node, not in the doubly linked list, whose data is x
+     * @updates $this.freeList, $this.freeCount
+     */
+    private Node<T> obtainNode(T x) {
+        Node<T> n = this.freeList;
+        if (n != null) {
+            this.freeList = n.next;
+            this.freeCount--;
+        } else {
+            n = new Node<T>();
+        }
+        n.data = x;
+        return n;
+    }
+
+    /**
+     * Puts {@code n}, which has just been unlinked from the doubly linked list,
+     * on the free list if there is room there, after dropping its references.
+     *
+     * @param n
+     *            the node to recycle
+     * @updates $this.freeList, $this.freeCount
+     */
+    private void recycleNode(Node<T> n) {
+        n.data = null;
+        n.previous = null;
+        n.next = null;
+        if (this.freeCount < this.poolCapacity) {
+            n.next = this.freeList;
+            this.freeList = n;
+            this.freeCount++;
+        }
     }
 
     /**
      * No-argument constructor.
      */
     public List3() {
+        this(POOL_CAPACITY);
+    }
+
+    /**
+     * Constructor from the maximum number of removed nodes to keep for reuse;
+     * with {@code poolCapacity} = 0, every insertion allocates a new node.
+     * Lists made from this one by {@code newInstance} get the default pool
+     * capacity.
+     *
+     * @param poolCapacity
+     *            the maximum number of nodes on the free list
+     * @requires poolCapacity >= 0
+     */
+    public List3(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+
+        this.poolCapacity = poolCapacity;
 
         //Calls method to create new representation of list3
         this.createNewRep();
@@ -229,11 +510,18 @@ public class List3<T> extends ListSecondary<T> {
          * the ? must be T or the call would not have compiled.
          */
         List3<T> localSource = (List3<T>) source;
+        Node<T> oldPreStart = this.preStart;
+        Node<T> oldPostFinish = this.postFinish;
         this.preStart = localSource.preStart;
         this.lastLeft = localSource.lastLeft;
         this.postFinish = localSource.postFinish;
         this.leftLength = localSource.leftLength;
         this.rightLength = localSource.rightLength;
+        this.checkpoints = localSource.checkpoints;
+
+        //Hand this list's old smart nodes to the source for its new rep
+        localSource.preStart = oldPreStart;
+        localSource.postFinish = oldPostFinish;
         localSource.createNewRep();
         assert this.conventionHolds();
         assert localSource.conventionHolds();
@@ -245,10 +533,10 @@ public class List3<T> extends ListSecondary<T> {
 
         //Increment length of right to account for new object being added
         this.rightLength++;
+        this.checkpoints = null;
 
-        //Store object in new node
-        Node insert = new Node();
-        insert.data = x;
+        //Store object in a recycled or new node
+        Node<T> insert = this.obtainNode(x);
 
         //Adjusts all node variables in list to account for new node being added
         insert.next = this.lastLeft.next;
@@ -264,7 +552,7 @@ public class List3<T> extends ListSecondary<T> {
         assert this.rightLength() > 0 : "Violation of: this.right /= <>";
 
         //Stores removed object's node
-        Node removed = this.lastLeft.next;
+        Node<T> removed = this.lastLeft.next;
 
         //Adjusts nodes after removal
         this.lastLeft.next = removed.next;
@@ -272,11 +560,16 @@ public class List3<T> extends ListSecondary<T> {
 
         //Decrements right length to account for object being removed
         this.rightLength--;
+        this.checkpoints = null;
+
+        //Keep the removed node for reuse
+        T data = removed.data;
+        this.recycleNode(removed);
 
         assert this.conventionHolds();
 
         //Return removed object
-        return removed.data;
+        return data;
     }
 
     @Override
@@ -340,7 +633,7 @@ public class List3<T> extends ListSecondary<T> {
         /**
          * Current node in the linked list.
          */
-        private Node current;
+        private Node<T> current;
 
         /**
          * No-argument constructor.
@@ -372,6 +665,19 @@ public class List3<T> extends ListSecondary<T> {
             return x;
         }
 
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+
+            //Walk the rest of the nodes without checking the convention
+            Node<T> n = this.current;
+            while (n != List3.this.postFinish) {
+                action.accept(n.data);
+                n = n.next;
+            }
+            this.current = n;
+        }
+
         @Override
         public void remove() {
             throw new UnsupportedOperationException(
@@ -380,6 +686,116 @@ public class List3<T> extends ListSecondary<T> {
 
     }
 
+    @Override
+    public final void forEach(Consumer<? super T> action) {
+        assert action != null : "Violation of: action is not null";
+        assert this.conventionHolds();
+
+        //Walk the nodes directly rather than through an iterator
+        Node<T> n = this.preStart.next;
+        while (n != this.postFinish) {
+            action.accept(n.data);
+            n = n.next;
+        }
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        assert this.conventionHolds();
+        return new List3Spliterator(this.preStart.next,
+                this.leftLength + this.rightLength);
+    }
+
+    /**
+     * Implementation of {@code Spliterator} interface for {@code List3}. Each
+     * one covers a run of consecutive nodes, given by its first node and its
+     * length, and splits by walking to the middle of that run.
+     */
+    private final class List3Spliterator implements Spliterator<T> {
+
+        /**
+         * First node not yet visited.
+         */
+        private Node<T> current;
+
+        /**
+         * Number of nodes not yet visited.
+         */
+        private int remaining;
+
+        /**
+         * Constructor from the first node and length of the run of nodes.
+         *
+         * @param first
+         *            the first node to visit
+         * @param length
+         *            the number of nodes to visit
+         */
+        private List3Spliterator(Node<T> first, int length) {
+            this.current = first;
+            this.remaining = length;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+
+            boolean advanced = false;
+            if (this.remaining > 0) {
+                action.accept(this.current.data);
+                this.current = this.current.next;
+                this.remaining--;
+                advanced = true;
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+
+            //Walk the rest of the run without any checking
+            Node<T> n = this.current;
+            for (int i = this.remaining; i > 0; i--) {
+                action.accept(n.data);
+                n = n.next;
+            }
+            this.current = n;
+            this.remaining = 0;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            List3Spliterator prefix = null;
+            if (this.remaining >= SPLIT_THRESHOLD) {
+
+                //Hand the first half of the run to a new spliterator and keep
+                //the second half
+                int half = this.remaining / 2;
+                Node<T> middle = this.current;
+                for (int i = 0; i < half; i++) {
+                    middle = middle.next;
+                }
+                prefix = new List3Spliterator(this.current, half);
+                this.current = middle;
+                this.remaining -= half;
+            }
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+    }
+
     /*
      * Other methods (overridden for performance reasons) ---------------------
      */
@@ -416,4 +832,236 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    @Override
+    public final void append(List<T> extension) {
+        assert extension != null : "Violation of: extension is not null";
+        assert extension != this : "Violation of: extension is not this";
+
+        if (extension instanceof List3<?>) {
+            /*
+             * This cast cannot fail since the if test above would have skipped
+             * this branch in that case: extension must be of dynamic type
+             * List3<?>, and the ? must be T or the call would not have
+             * compiled.
+             */
+            List3<T> localExtension = (List3<T>) extension;
+
+            //Relink the extension's nodes after the last node of this.right
+            this.spliceAfter(this.postFinish.previous, localExtension);
+        } else {
+            super.append(extension);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Additional methods -----------------------------------------------------
+     */
+
+    /**
+     * Removes this.right from {@code this} and returns it as a new list, by
+     * relinking nodes rather than copying entries.
+     *
+     * @return the former this.right
+     * @updates this
+     * @ensures <pre>
+     * this = (#this.left, <>)  and
+     * splitAtCursor = (<>, #this.right)
+     * </pre>
+     */
+    public final List3<T> splitAtCursor() {
+        List3<T> rest = this.newInstance();
+
+        if (this.rightLength > 0) {
+            Node<T> first = this.lastLeft.next;
+            Node<T> last = this.postFinish.previous;
+
+            //Hang this.right's nodes between the new list's smart nodes
+            rest.preStart.next = first;
+            first.previous = rest.preStart;
+            last.next = rest.postFinish;
+            rest.postFinish.previous = last;
+            rest.rightLength = this.rightLength;
+
+            //Close this list up after lastLeft
+            this.lastLeft.next = this.postFinish;
+            this.postFinish.previous = this.lastLeft;
+            this.rightLength = 0;
+            this.checkpoints = null;
+        }
+
+        assert this.conventionHolds();
+        assert rest.conventionHolds();
+
+        return rest;
+    }
+
+    /**
+     * Inserts all entries of {@code source} at the front of this.right, by
+     * relinking nodes rather than copying entries.
+     *
+     * @param source
+     *            the list whose entries are to be inserted
+     * @updates this
+     * @clears source
+     * @requires source is not this
+     * @ensures <pre>
+     * this = (#this.left, #source.left * #source.right * #this.right)
+     * </pre>
+     */
+    public final void insertAllAtCursor(List3<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        //Relink the source's nodes right after lastLeft
+        this.spliceAfter(this.lastLeft, source);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Moves all nodes of {@code source} (other than its smart nodes) into the
+     * doubly linked list of {@code this}, right after {@code at}, and clears
+     * {@code source}.
+     *
+     * @param at
+     *            the node after which to splice
+     * @param source
+     *            the list whose nodes are moved
+     * @updates $this, source
+     * @requires <pre>
+     * [at is in the doubly linked list of $this, but is not $this.postFinish]  and
+     * [at is not before $this.lastLeft in that list]  and
+     * source is not this
+     * </pre>
+     * @ensures <pre>
+     * [the nodes of #source are linked into $this right after at]  and
+     * $this.rightLength = #$this.rightLength + |#source.left| + |#source.right|  and
+     * source = (<>, <>)
+     * </pre>
+     */
+    private void spliceAfter(Node<T> at, List3<T> source) {
+        int count = source.leftLength + source.rightLength;
+        if (count > 0) {
+            Node<T> first = source.preStart.next;
+            Node<T> last = source.postFinish.previous;
+            Node<T> after = at.next;
+
+            //Link the source's chain between at and its old successor
+            at.next = first;
+            first.previous = at;
+            last.next = after;
+            after.previous = last;
+
+            //All the moved entries land in this.right
+            this.rightLength += count;
+            this.checkpoints = null;
+
+            source.createNewRep();
+        }
+    }
+
+    /**
+     * Moves the position of {@code this} so that |this.left| =
+     * {@code position}.
+     *
+     * <p>
+     * The walk starts from whichever of the start, the current position, the
+     * finish, or the nearest checkpoint is closest to {@code position}.
+     * Checkpoints are rebuilt, in O(|this.left| + |this.right|) time, by the
+     * first call after an entry is added or removed that cannot be served
+     * from the other starting points in under {@code CHECKPOINT_SPACING}
+     * steps; after that, each call takes O({@code CHECKPOINT_SPACING}) steps.
+     * </p>
+     *
+     * @param position
+     *            the new length of this.left
+     * @updates this
+     * @requires 0 <= position <= |this.left| + |this.right|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = position
+     * </pre>
+     */
+    public final void jumpTo(int position) {
+        assert 0 <= position : "Violation of: 0 <= position";
+        assert position <= this.leftLength + this.rightLength : ""
+                + "Violation of: position <= |this.left| + |this.right|";
+
+        int length = this.leftLength + this.rightLength;
+
+        //Pick the closest of the start, the current position and the finish
+        Node<T> from = this.preStart;
+        int fromPosition = 0;
+        if (Math.abs(position - this.leftLength) < position - fromPosition) {
+            from = this.lastLeft;
+            fromPosition = this.leftLength;
+        }
+        if (length - position < Math.abs(position - fromPosition)) {
+            from = this.postFinish.previous;
+            fromPosition = length;
+        }
+
+        //Use a checkpoint instead when the walk would otherwise be long
+        if (Math.abs(position - fromPosition) >= CHECKPOINT_SPACING) {
+            if (this.checkpoints == null) {
+                this.buildCheckpoints();
+            }
+            int index = position / CHECKPOINT_SPACING;
+            if (position % CHECKPOINT_SPACING > CHECKPOINT_SPACING / 2
+                    && index + 1 < this.checkpoints.length) {
+                index++;
+            }
+            from = this.checkpoints[index];
+            fromPosition = index * CHECKPOINT_SPACING;
+        }
+
+        //Walk the remaining distance in whichever direction it lies
+        while (fromPosition < position) {
+            from = from.next;
+            fromPosition++;
+        }
+        while (fromPosition > position) {
+            from = from.previous;
+            fromPosition--;
+        }
+
+        this.lastLeft = from;
+        this.leftLength = position;
+        this.rightLength = length - position;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Rebuilds $this.checkpoints from the current doubly linked list.
+     *
+     * @updates $this.checkpoints
+     * @ensures <pre>
+     * [entry i of $this.checkpoints is the node at position
+     *  (i * CHECKPOINT_SPACING) of the doubly linked list, for every
+     *  position up to $this.leftLength + $this.rightLength]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void buildCheckpoints() {
+        int length = this.leftLength + this.rightLength;
+        int count = length / CHECKPOINT_SPACING + 1;
+        /*
+         * A generic array cannot be created directly; the unchecked cast
+         * cannot fail since the new array holds no entries yet.
+         */
+        this.checkpoints = (Node<T>[]) new Node<?>[count];
+
+        //Record every CHECKPOINT_SPACING-th node, starting at the start node
+        Node<T> n = this.preStart;
+        for (int i = 0; i < count; i++) {
+            this.checkpoints[i] = n;
+            for (int j = 0; j < CHECKPOINT_SPACING && i + 1 < count; j++) {
+                n = n.next;
+            }
+        }
+    }
+
 }
@@ -0,0 +1,536 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe unbounded deque represented, like {@code List3}, as a doubly
+ * linked list between two "smart" nodes, with one lock for each end.
+ *
+ * <p>
+ * An operation on the first end locks only the first end, and an operation on
+ * the last end locks only the last end, as long as the deque holds at least
+ * {@code SHORT_LENGTH} entries; then the two ends touch disjoint nodes (or
+ * disjoint fields of the same node), so producers at one end and consumers at
+ * the other never contend. When the deque is shorter than that, an operation
+ * locks both ends (first end, then last end, to avoid deadlock). Entries are
+ * counted in an atomic field that every operation updates after relinking and
+ * reads before relinking, which also publishes each operation's writes to the
+ * other end.
+ * </p>
+ *
+ * <p>
+ * The blocking {@code takeFirst} and {@code takeLast} wait on a separate lock,
+ * which producers only touch when some thread is actually waiting.
+ * </p>
+ *
+ * @param <T>
+ *            type of deque entries
+ * @convention <pre>
+ * [$this.preStart points to the first node of a doubly linked list
+ *  containing ($this.length + 2) nodes]  and
+ * [$this.postFinish points to the last node in that doubly linked list]  and
+ * [the data in every node other than the two "smart" nodes is not null]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.preStart, n.previous.next = n]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.postFinish, n.next.previous = n]
+ * (all of which hold whenever both locks are free or held by one thread)
+ * </pre>
+ * @correspondence <pre>
+ * this = [data in nodes starting at $this.preStart.next and running through
+ *         $this.postFinish.previous]
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class List3Deque<T> {
+
+    /**
+     * Length below which operations lock both ends. With at least this many
+     * entries when an operation starts, at most one operation at the other
+     * end can be running, and the deque keeps at least three entries while
+     * both run, so they touch different nodes.
+     */
+    private static final int SHORT_LENGTH = 4;
+
+    /**
+     * Node class for doubly linked list nodes.
+     *
+     * @param <T>
+     *            type of node data
+     */
+    private static final class Node<T> {
+
+        /**
+         * Data in node, or, if this is a "smart" Node, irrelevant.
+         */
+        private T data;
+
+        /**
+         * Next node in doubly linked list, or, if this is a trailing "smart"
+         * Node, irrelevant.
+         */
+        private Node<T> next;
+
+        /**
+         * Previous node in doubly linked list, or, if this is a leading "smart"
+         * Node, irrelevant.
+         */
+        private Node<T> previous;
+
+    }
+
+    /**
+     * "Smart node" before first node of doubly linked list.
+     */
+    private final Node<T> preStart;
+
+    /**
+     * "Smart node" after last node of doubly linked list.
+     */
+    private final Node<T> postFinish;
+
+    /**
+     * Lock for operations on the first end.
+     */
+    private final ReentrantLock firstLock = new ReentrantLock();
+
+    /**
+     * Lock for operations on the last end.
+     */
+    private final ReentrantLock lastLock = new ReentrantLock();
+
+    /**
+     * Number of entries.
+     */
+    private final AtomicInteger length = new AtomicInteger();
+
+    /**
+     * Lock held by threads blocked in {@code takeFirst} or {@code takeLast}
+     * while they check for an entry.
+     */
+    private final ReentrantLock waitLock = new ReentrantLock();
+
+    /**
+     * Condition signaled when an entry is added while a thread is waiting.
+     */
+    private final Condition notEmpty = this.waitLock.newCondition();
+
+    /**
+     * Number of threads blocked in {@code takeFirst} or {@code takeLast}.
+     */
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @requires [the current thread holds both $this.firstLock and
+     *           $this.lastLock]
+     * @convention <pre>
+     * [$this.preStart points to the first node of a doubly linked list
+     *  containing ($this.length + 2) nodes]  and
+     * [$this.postFinish points to the last node in that doubly linked list]  and
+     * [the data in every node other than the two "smart" nodes is not null]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.preStart, n.previous.next = n]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.postFinish, n.next.previous = n]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        int expected = this.length.get();
+        int count = 0;
+        Node<T> n = this.preStart;
+        while ((count <= expected) && (n != this.postFinish)) {
+            assert (n.next != null) && (n.next.previous == n) : ""
+                    + "Violation of: [for every node n in the doubly linked"
+                    + " list of nodes, except the one pointed to by"
+                    + " $this.postFinish, n.next.previous = n]";
+            n = n.next;
+            if (n != this.postFinish) {
+                assert n.data != null : ""
+                        + "Violation of: [the data in every node other than"
+                        + " the two \"smart\" nodes is not null]";
+                count++;
+            }
+        }
+        assert n == this.postFinish : ""
+                + "Violation of: [$this.postFinish points to the last"
+                + " node in that doubly linked list]";
+        assert count == expected : ""
+                + "Violation of: [$this.preStart points to the first node of"
+                + " a doubly linked list containing ($this.length + 2) nodes]";
+
+        return true;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List3Deque() {
+        this.preStart = new Node<T>();
+        this.postFinish = new Node<T>();
+        this.preStart.next = this.postFinish;
+        this.postFinish.previous = this.preStart;
+    }
+
+    /*
+     * Locking helpers ---------------------------------------------------------
+     */
+
+    /**
+     * Locks the first end, and also the last end if the deque is short.
+     *
+     * @return true if both ends were locked
+     */
+    private boolean lockFirstEnd() {
+        this.firstLock.lock();
+        boolean both = this.length.get() < SHORT_LENGTH;
+        if (both) {
+            this.lastLock.lock();
+        }
+        return both;
+    }
+
+    /**
+     * Locks the last end, and also the first end if the deque is short.
+     *
+     * @return true if both ends were locked
+     */
+    private boolean lockLastEnd() {
+        this.lastLock.lock();
+        boolean both = this.length.get() < SHORT_LENGTH;
+        if (both) {
+            //Re-lock in first-then-last order to avoid deadlock
+            this.lastLock.unlock();
+            this.firstLock.lock();
+            this.lastLock.lock();
+        }
+        return both;
+    }
+
+    /**
+     * Undoes {@code lockFirstEnd} or {@code lockLastEnd}.
+     *
+     * @param both
+     *            the value returned by the matching lock call
+     * @param firstEnd
+     *            whether the matching call was {@code lockFirstEnd}
+     */
+    private void unlockEnds(boolean both, boolean firstEnd) {
+        if (both || !firstEnd) {
+            this.lastLock.unlock();
+        }
+        if (both || firstEnd) {
+            this.firstLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes one thread blocked in {@code takeFirst} or {@code takeLast}, if
+     * there is one.
+     */
+    private void signalIfWaiting() {
+        if (this.waiting.get() > 0) {
+            this.waitLock.lock();
+            try {
+                this.notEmpty.signal();
+            } finally {
+                this.waitLock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Public methods ----------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} at the first end of {@code this}.
+     *
+     * @param x
+     *            the entry to add
+     * @updates this
+     * @requires x is not null
+     * @ensures this = <x> * #this
+     */
+    public final void addFirst(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        Node<T> inserted = new Node<T>();
+        inserted.data = x;
+        boolean both = this.lockFirstEnd();
+        try {
+            Node<T> first = this.preStart.next;
+            inserted.previous = this.preStart;
+            inserted.next = first;
+            first.previous = inserted;
+            this.preStart.next = inserted;
+            this.length.incrementAndGet();
+            assert !both || this.conventionHolds();
+        } finally {
+            this.unlockEnds(both, true);
+        }
+        this.signalIfWaiting();
+    }
+
+    /**
+     * Adds {@code x} at the last end of {@code this}.
+     *
+     * @param x
+     *            the entry to add
+     * @updates this
+     * @requires x is not null
+     * @ensures this = #this * <x>
+     */
+    public final void addLast(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        Node<T> inserted = new Node<T>();
+        inserted.data = x;
+        boolean both = this.lockLastEnd();
+        try {
+            Node<T> last = this.postFinish.previous;
+            inserted.next = this.postFinish;
+            inserted.previous = last;
+            last.next = inserted;
+            this.postFinish.previous = inserted;
+            this.length.incrementAndGet();
+            assert !both || this.conventionHolds();
+        } finally {
+            this.unlockEnds(both, false);
+        }
+        this.signalIfWaiting();
+    }
+
+    /**
+     * Removes and returns the entry at the first end of {@code this}, if there
+     * is one.
+     *
+     * @return the removed entry, or null if {@code this} was empty
+     * @updates this
+     * @ensures <pre>
+     * if #this = <> then
+     *   this = #this  and  pollFirst = null
+     * else
+     *   #this = <pollFirst> * this
+     * </pre>
+     */
+    public final T pollFirst() {
+        T removed = null;
+        boolean both = this.lockFirstEnd();
+        try {
+            Node<T> first = this.preStart.next;
+            if (first != this.postFinish) {
+                this.preStart.next = first.next;
+                first.next.previous = this.preStart;
+                this.length.decrementAndGet();
+                removed = first.data;
+                first.data = null;
+            }
+            assert !both || this.conventionHolds();
+        } finally {
+            this.unlockEnds(both, true);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes and returns the entry at the last end of {@code this}, if there
+     * is one.
+     *
+     * @return the removed entry, or null if {@code this} was empty
+     * @updates this
+     * @ensures <pre>
+     * if #this = <> then
+     *   this = #this  and  pollLast = null
+     * else
+     *   #this = this * <pollLast>
+     * </pre>
+     */
+    public final T pollLast() {
+        T removed = null;
+        boolean both = this.lockLastEnd();
+        try {
+            Node<T> last = this.postFinish.previous;
+            if (last != this.preStart) {
+                this.postFinish.previous = last.previous;
+                last.previous.next = this.postFinish;
+                this.length.decrementAndGet();
+                removed = last.data;
+                last.data = null;
+            }
+            assert !both || this.conventionHolds();
+        } finally {
+            this.unlockEnds(both, false);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes and returns the entry at the first end of {@code this}, waiting
+     * until there is one if necessary.
+     *
+     * @return the removed entry
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     * @updates this
+     * @ensures #this = <takeFirst> * this
+     */
+    public final T takeFirst() throws InterruptedException {
+        return this.take(true, -1L);
+    }
+
+    /**
+     * Removes and returns the entry at the last end of {@code this}, waiting
+     * until there is one if necessary.
+     *
+     * @return the removed entry
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     * @updates this
+     * @ensures #this = this * <takeLast>
+     */
+    public final T takeLast() throws InterruptedException {
+        return this.take(false, -1L);
+    }
+
+    /**
+     * Removes and returns the entry at the first end of {@code this}, waiting
+     * up to the given time for one if necessary.
+     *
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            the unit of {@code timeout}
+     * @return the removed entry, or null if none arrived in time
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     * @updates this
+     * @ensures <pre>
+     * if pollFirst = null then
+     *   this = #this  and  #this = <>
+     * else
+     *   #this = <pollFirst> * this
+     * </pre>
+     */
+    public final T pollFirst(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        assert unit != null : "Violation of: unit is not null";
+        return this.take(true, unit.toNanos(Math.max(timeout, 0L)));
+    }
+
+    /**
+     * Removes and returns the entry at the last end of {@code this}, waiting
+     * up to the given time for one if necessary.
+     *
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            the unit of {@code timeout}
+     * @return the removed entry, or null if none arrived in time
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     * @updates this
+     * @ensures <pre>
+     * if pollLast = null then
+     *   this = #this  and  #this = <>
+     * else
+     *   #this = this * <pollLast>
+     * </pre>
+     */
+    public final T pollLast(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        assert unit != null : "Violation of: unit is not null";
+        return this.take(false, unit.toNanos(Math.max(timeout, 0L)));
+    }
+
+    /**
+     * Removes and returns the entry at the given end, waiting for one if
+     * necessary.
+     *
+     * @param firstEnd
+     *            whether to remove at the first end (else the last end)
+     * @param nanos
+     *            how long to wait, in nanoseconds, or a negative number to
+     *            wait indefinitely
+     * @return the removed entry, or null if none arrived in time
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     */
+    private T take(boolean firstEnd, long nanos) throws InterruptedException {
+        T removed = this.poll(firstEnd);
+        if (removed == null) {
+            long remaining = nanos;
+            this.waitLock.lockInterruptibly();
+            try {
+                /*
+                 * Announce the wait before checking again: a producer that adds
+                 * after this check sees waiting > 0 and signals, and one that
+                 * added before it is seen by the check.
+                 */
+                this.waiting.incrementAndGet();
+                try {
+                    removed = this.poll(firstEnd);
+                    while (removed == null && remaining != 0L) {
+                        if (remaining < 0L) {
+                            this.notEmpty.await();
+                        } else {
+                            remaining = Math.max(
+                                    this.notEmpty.awaitNanos(remaining), 0L);
+                        }
+                        removed = this.poll(firstEnd);
+                    }
+                } finally {
+                    this.waiting.decrementAndGet();
+                }
+            } finally {
+                this.waitLock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes and returns the entry at the given end, if there is one.
+     *
+     * @param firstEnd
+     *            whether to remove at the first end (else the last end)
+     * @return the removed entry, or null if {@code this} was empty
+     */
+    private T poll(boolean firstEnd) {
+        T removed;
+        if (firstEnd) {
+            removed = this.pollFirst();
+        } else {
+            removed = this.pollLast();
+        }
+        return removed;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}. With other threads
+     * adding and removing, the answer may be out of date on return.
+     *
+     * @return |this|
+     */
+    public final int size() {
+        return this.length.get();
+    }
+
+    /**
+     * Reports whether {@code this} is empty. With other threads adding and
+     * removing, the answer may be out of date on return.
+     *
+     * @return this = <>
+     */
+    public final boolean isEmpty() {
+        return this.length.get() == 0;
+    }
+
+}
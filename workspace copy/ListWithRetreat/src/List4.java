@@ -0,0 +1,582 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an unrolled doubly linked list (each node holds
+ * up to {@code CHUNK_CAPACITY} entries in an array), done "bare-handed", with
+ * implementations of primary methods and {@code retreat} and
+ * {@code moveToFinish} secondary methods.
+ *
+ * <p>
+ * Execution-time performance of {@code advance}, {@code retreat},
+ * {@code moveToStart}, {@code moveToFinish}, {@code leftLength} and
+ * {@code rightLength} is O(1); {@code addRightFront} and
+ * {@code removeRightFront} are O({@code CHUNK_CAPACITY}). Compared with
+ * {@code List3}, there is one node (and three references of overhead) per
+ * chunk of entries rather than per entry, and iteration walks contiguous
+ * arrays.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * [$this.rightLength >= 0] and
+ * [$this.preStart is not null]  and
+ * [$this.postFinish is not null]  and
+ * [$this.preStart points to the first node of a doubly linked list whose
+ *  last node is pointed to by $this.postFinish]  and
+ * [every node strictly between $this.preStart and $this.postFinish has
+ *  1 <= count <= CHUNK_CAPACITY, and exactly its first count entries are
+ *  not null]  and
+ * [the counts of those nodes add up to $this.leftLength + $this.rightLength]  and
+ * [either $this.cursor points to a node strictly between $this.preStart and
+ *  $this.postFinish and 0 <= $this.cursorIndex < $this.cursor.count, or
+ *  $this.cursor = $this.postFinish and $this.cursorIndex = 0]  and
+ * [there are exactly $this.leftLength entries before the entry at position
+ *  $this.cursorIndex in $this.cursor]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.preStart, n.previous.next = n]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.postFinish, n.next.previous = n]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries in nodes starting at $this.preStart.next and running up to,
+ *    but not including, entry $this.cursorIndex of $this.cursor],
+ *   [entries starting at entry $this.cursorIndex of $this.cursor and
+ *    running through $this.postFinish.previous])
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /**
+     * Maximum number of entries held by one node.
+     */
+    private static final int CHUNK_CAPACITY = 32;
+
+    /**
+     * Number of entries below which a node is merged with its successor, if
+     * the two fit in one node.
+     */
+    private static final int MERGE_THRESHOLD = CHUNK_CAPACITY / 4;
+
+    /**
+     * Node class for unrolled doubly linked list nodes.
+     */
+    private final class Node {
+
+        /**
+         * Entries in node; only the first {@code count} are meaningful. For a
+         * "smart" Node, irrelevant.
+         */
+        private final Object[] items;
+
+        /**
+         * Number of entries in node.
+         */
+        private int count;
+
+        /**
+         * Next node in doubly linked list, or, if this is a trailing "smart"
+         * Node, irrelevant.
+         */
+        private Node next;
+
+        /**
+         * Previous node in doubly linked list, or, if this is a leading "smart"
+         * Node, irrelevant.
+         */
+        private Node previous;
+
+        /**
+         * Constructor.
+         *
+         * @param capacity
+         *            length of the entries array
+         */
+        private Node(int capacity) {
+            this.items = new Object[capacity];
+            this.count = 0;
+        }
+
+        /**
+         * Returns the entry at position {@code i} of this node.
+         *
+         * @param i
+         *            the position of the entry
+         * @return the entry
+         * @requires 0 <= i < this.count
+         */
+        @SuppressWarnings("unchecked")
+        private T item(int i) {
+            return (T) this.items[i];
+        }
+
+    }
+
+    /**
+     * "Smart node" before start node of doubly linked list.
+     */
+    private Node preStart;
+
+    /**
+     * "Smart node" after finish node of doubly linked list.
+     */
+    private Node postFinish;
+
+    /**
+     * Node holding the front entry of this.right, or $this.postFinish if
+     * this.right is empty.
+     */
+    private Node cursor;
+
+    /**
+     * Position of the front entry of this.right in $this.cursor.
+     */
+    private int cursorIndex;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * [$this.rightLength >= 0] and
+     * [$this.preStart is not null]  and
+     * [$this.postFinish is not null]  and
+     * [$this.preStart points to the first node of a doubly linked list whose
+     *  last node is pointed to by $this.postFinish]  and
+     * [every node strictly between $this.preStart and $this.postFinish has
+     *  1 <= count <= CHUNK_CAPACITY, and exactly its first count entries are
+     *  not null]  and
+     * [the counts of those nodes add up to $this.leftLength + $this.rightLength]  and
+     * [either $this.cursor points to a node strictly between $this.preStart and
+     *  $this.postFinish and 0 <= $this.cursorIndex < $this.cursor.count, or
+     *  $this.cursor = $this.postFinish and $this.cursorIndex = 0]  and
+     * [there are exactly $this.leftLength entries before the entry at position
+     *  $this.cursorIndex in $this.cursor]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.preStart, n.previous.next = n]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.postFinish, n.next.previous = n]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.preStart != null : "Violation of: $this.preStart is not null";
+        assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert this.cursor != null : "Violation of: $this.cursor is not null";
+
+        int total = 0;
+        boolean cursorFound = false;
+        Node n = this.preStart;
+        while ((total <= this.leftLength + this.rightLength)
+                && (n != this.postFinish)) {
+            /*
+             * Check for every node n in the doubly linked list of nodes, except
+             * the one pointed to by $this.postFinish, n.next.previous = n
+             */
+            assert (n.next != null) && (n.next.previous == n) : ""
+                    + "Violation of: [for every node n in the doubly linked"
+                    + " list of nodes, except the one pointed to by"
+                    + " $this.postFinish, n.next.previous = n]";
+            n = n.next;
+            if (n != this.postFinish) {
+                assert (1 <= n.count) && (n.count <= CHUNK_CAPACITY) : ""
+                        + "Violation of: [every node strictly between"
+                        + " $this.preStart and $this.postFinish has"
+                        + " 1 <= count <= CHUNK_CAPACITY]";
+                for (int i = 0; i < n.items.length; i++) {
+                    assert (n.items[i] != null) == (i < n.count) : ""
+                            + "Violation of: [exactly the first count entries"
+                            + " of every node are not null]";
+                }
+            }
+            if (n == this.cursor) {
+                assert (n == this.postFinish) ? this.cursorIndex == 0
+                        : (0 <= this.cursorIndex
+                                && this.cursorIndex < n.count) : ""
+                                        + "Violation of: [$this.cursorIndex is"
+                                        + " a valid position in $this.cursor]";
+                assert total + this.cursorIndex == this.leftLength : ""
+                        + "Violation of: [there are exactly $this.leftLength"
+                        + " entries before the cursor entry]";
+                cursorFound = true;
+            }
+            total += n.count;
+        }
+        assert n == this.postFinish : ""
+                + "Violation of: [$this.postFinish points to the last"
+                + " node in that doubly linked list]";
+        assert total == this.leftLength + this.rightLength : ""
+                + "Violation of: [the counts of those nodes add up to"
+                + " $this.leftLength + $this.rightLength]";
+        assert cursorFound : ""
+                + "Violation of: [$this.cursor points to a node in the"
+                + " doubly linked list]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        //Initialize start and finish nodes, which never hold entries
+        this.preStart = new Node(0);
+        this.postFinish = new Node(0);
+
+        //Link the start and finish nodes and park the cursor at the finish
+        this.preStart.next = this.postFinish;
+        this.postFinish.previous = this.preStart;
+        this.cursor = this.postFinish;
+        this.cursorIndex = 0;
+
+        //Assign the left and right lengths
+        this.leftLength = 0;
+        this.rightLength = 0;
+
+    }
+
+    /**
+     * Creates a new empty node and links it into the doubly linked list right
+     * after {@code before}.
+     *
+     * @param before
+     *            the node after which to link the new node
+     * @return the new node
+     */
+    private Node linkNewNodeAfter(Node before) {
+        Node inserted = new Node(CHUNK_CAPACITY);
+        inserted.previous = before;
+        inserted.next = before.next;
+        before.next.previous = inserted;
+        before.next = inserted;
+        return inserted;
+    }
+
+    /**
+     * Unlinks {@code n} from the doubly linked list.
+     *
+     * @param n
+     *            the node to unlink
+     * @requires [n is strictly between $this.preStart and $this.postFinish]
+     */
+    private void unlink(Node n) {
+        n.previous.next = n.next;
+        n.next.previous = n.previous;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List4() {
+
+        //Calls method to create new representation of list4
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.preStart = localSource.preStart;
+        this.postFinish = localSource.postFinish;
+        this.cursor = localSource.cursor;
+        this.cursorIndex = localSource.cursorIndex;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        Node target = this.cursor;
+        int index = this.cursorIndex;
+
+        //When the cursor is at the front of its node (or at the finish), the
+        //entry can go at the back of the previous node if that one has room
+        Node before = target.previous;
+        if (index == 0 && before != this.preStart
+                && before.count < CHUNK_CAPACITY) {
+            target = before;
+            index = before.count;
+        } else if (target == this.postFinish) {
+            target = this.linkNewNodeAfter(before);
+            index = 0;
+        } else if (target.count == CHUNK_CAPACITY) {
+
+            //Full node: move its upper half to a new node after it, then
+            //insert into whichever half holds position index
+            Node upper = this.linkNewNodeAfter(target);
+            int half = CHUNK_CAPACITY / 2;
+            System.arraycopy(target.items, half, upper.items, 0,
+                    CHUNK_CAPACITY - half);
+            Arrays.fill(target.items, half, CHUNK_CAPACITY, null);
+            upper.count = CHUNK_CAPACITY - half;
+            target.count = half;
+            if (index > half) {
+                target = upper;
+                index -= half;
+            }
+        }
+
+        //Shift the entries at and after index up by one and store x
+        System.arraycopy(target.items, index, target.items, index + 1,
+                target.count - index);
+        target.items[index] = x;
+        target.count++;
+
+        //The new entry is the front of this.right
+        this.cursor = target;
+        this.cursorIndex = index;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        Node n = this.cursor;
+        int index = this.cursorIndex;
+        T removed = n.item(index);
+
+        //Shift the entries after index down by one
+        System.arraycopy(n.items, index + 1, n.items, index,
+                n.count - index - 1);
+        n.count--;
+        n.items[n.count] = null;
+        this.rightLength--;
+
+        if (n.count == 0) {
+            //Drop the empty node; the front of this.right is in the next one
+            this.unlink(n);
+            this.cursor = n.next;
+            this.cursorIndex = 0;
+        } else {
+            //Absorb a small successor to keep nodes reasonably full
+            Node after = n.next;
+            if (n.count < MERGE_THRESHOLD && after != this.postFinish
+                    && n.count + after.count <= CHUNK_CAPACITY) {
+                System.arraycopy(after.items, 0, n.items, n.count,
+                        after.count);
+                n.count += after.count;
+                this.unlink(after);
+            }
+            if (index == n.count) {
+                this.cursor = n.next;
+                this.cursorIndex = 0;
+            }
+        }
+
+        assert this.conventionHolds();
+
+        //Return removed object
+        return removed;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //Step over the front entry, moving to the next node at the end of this one
+        this.cursorIndex++;
+        if (this.cursorIndex == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.cursorIndex = 0;
+        }
+
+        //Increments left length and decrements right length after advancing
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        //The first entry of the first node is the new front of this.right
+        this.cursor = this.preStart.next;
+        this.cursorIndex = 0;
+
+        //Adds left length to right length after traversing through left side
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        //Returns length of left side
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+
+        //Returns length of right side
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Current node in the linked list.
+         */
+        private Node current;
+
+        /**
+         * Position of the next entry in the current node.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List4Iterator() {
+            this.current = List4.this.preStart.next;
+            this.index = 0;
+            assert List4.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != List4.this.postFinish;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.current.item(this.index);
+            this.index++;
+            if (this.index == this.current.count) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+
+        //The cursor parks at the finish node when this.right is empty
+        this.cursor = this.postFinish;
+        this.cursorIndex = 0;
+
+        //Adds right length to left length, as the right has been traversed
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        //Step back one entry, moving to the last entry of the previous node
+        //at the front of this one
+        if (this.cursorIndex > 0) {
+            this.cursorIndex--;
+        } else {
+            this.cursor = this.cursor.previous;
+            this.cursorIndex = this.cursor.count - 1;
+        }
+
+        //Increment right length and decrement left length after retreating
+        this.rightLength++;
+        this.leftLength--;
+
+        assert this.conventionHolds();
+    }
+
+}
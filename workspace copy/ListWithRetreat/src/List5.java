@@ -0,0 +1,433 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a gap buffer (an array whose unused slots form
+ * one contiguous "gap"), done "bare-handed", with implementations of primary
+ * methods and {@code retreat}, {@code moveToFinish}, {@code rightFront} and
+ * {@code replaceRightFront} secondary methods.
+ *
+ * <p>
+ * The gap is only moved to the cursor when an edit happens there, so
+ * {@code advance}, {@code retreat}, {@code moveToStart} and
+ * {@code moveToFinish} are O(1), and a run of {@code addRightFront} and
+ * {@code removeRightFront} calls at the same position is O(1) per call
+ * (amortized, for growing the array), after an O(distance) move of the gap for
+ * the first one.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @mathdefinitions <pre>
+ * ENTRIES (
+ *   b: string of T,
+ *   gs: integer,
+ *   ge: integer
+ *  ) : string of T is
+ *  b[0, gs) * b[ge, |b|)
+ * </pre>
+ * @convention <pre>
+ * [$this.buffer is not null]  and
+ * 0 <= $this.gapStart <= $this.gapEnd <= |$this.buffer|  and
+ * [the entries of $this.buffer in [$this.gapStart, $this.gapEnd) are null]  and
+ * [the other entries of $this.buffer are not null]  and
+ * 0 <= $this.leftLength <= |ENTRIES($this.buffer, $this.gapStart, $this.gapEnd)|
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  (ENTRIES($this.buffer, $this.gapStart, $this.gapEnd)[0, $this.leftLength),
+ *   ENTRIES($this.buffer, $this.gapStart, $this.gapEnd)[$this.leftLength,
+ *     |ENTRIES($this.buffer, $this.gapStart, $this.gapEnd)|))
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class List5<T> extends ListSecondary<T> {
+
+    /**
+     * Length of the array in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Array holding the entries on both sides of the gap.
+     */
+    private Object[] buffer;
+
+    /**
+     * Index of the first slot of the gap.
+     */
+    private int gapStart;
+
+    /**
+     * Index of the first slot after the gap.
+     */
+    private int gapEnd;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * [$this.buffer is not null]  and
+     * 0 <= $this.gapStart <= $this.gapEnd <= |$this.buffer|  and
+     * [the entries of $this.buffer in [$this.gapStart, $this.gapEnd) are null]  and
+     * [the other entries of $this.buffer are not null]  and
+     * 0 <= $this.leftLength <= |ENTRIES($this.buffer, $this.gapStart, $this.gapEnd)|
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.buffer != null : "Violation of: $this.buffer is not null";
+        assert 0 <= this.gapStart : "Violation of: 0 <= $this.gapStart";
+        assert this.gapStart <= this.gapEnd : ""
+                + "Violation of: $this.gapStart <= $this.gapEnd";
+        assert this.gapEnd <= this.buffer.length : ""
+                + "Violation of: $this.gapEnd <= |$this.buffer|";
+        for (int i = 0; i < this.buffer.length; i++) {
+            boolean inGap = (this.gapStart <= i) && (i < this.gapEnd);
+            assert (this.buffer[i] == null) == inGap : ""
+                    + "Violation of: [exactly the entries of $this.buffer"
+                    + " in the gap are null]";
+        }
+        assert 0 <= this.leftLength : "Violation of: 0 <= $this.leftLength";
+        assert this.leftLength <= this.length() : ""
+                + "Violation of: $this.leftLength <= |ENTRIES($this.buffer,"
+                + " $this.gapStart, $this.gapEnd)|";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        //The whole array starts out as the gap
+        this.buffer = new Object[INITIAL_CAPACITY];
+        this.gapStart = 0;
+        this.gapEnd = INITIAL_CAPACITY;
+        this.leftLength = 0;
+
+    }
+
+    /**
+     * Reports the number of entries in {@code this}.
+     *
+     * @return |this.left| + |this.right|
+     */
+    private int length() {
+        return this.buffer.length - (this.gapEnd - this.gapStart);
+    }
+
+    /**
+     * Returns the entry at position {@code position} of this.left *
+     * this.right.
+     *
+     * @param position
+     *            the position of the entry
+     * @return the entry
+     * @requires 0 <= position < |this.left| + |this.right|
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(int position) {
+        int index = position;
+        if (index >= this.gapStart) {
+            index += this.gapEnd - this.gapStart;
+        }
+        return (T) this.buffer[index];
+    }
+
+    /**
+     * Moves the gap so that it starts right after the last entry of this.left.
+     *
+     * @updates $this.buffer, $this.gapStart, $this.gapEnd
+     * @ensures $this.gapStart = $this.leftLength
+     */
+    private void moveGapToCursor() {
+        int target = this.leftLength;
+        if (target < this.gapStart) {
+
+            //Slide the entries in [target, gapStart) to just before gapEnd
+            int count = this.gapStart - target;
+            System.arraycopy(this.buffer, target, this.buffer,
+                    this.gapEnd - count, count);
+            this.clearSlots(target,
+                    Math.min(this.gapStart, this.gapEnd - count));
+            this.gapStart = target;
+            this.gapEnd -= count;
+        } else if (target > this.gapStart) {
+
+            //Slide the first (target - gapStart) entries after the gap to
+            //just after gapStart
+            int count = target - this.gapStart;
+            System.arraycopy(this.buffer, this.gapEnd, this.buffer,
+                    this.gapStart, count);
+            this.clearSlots(Math.max(this.gapEnd, target),
+                    this.gapEnd + count);
+            this.gapStart = target;
+            this.gapEnd += count;
+        }
+    }
+
+    /**
+     * Sets the slots of $this.buffer in [{@code from}, {@code to}) to null.
+     *
+     * @param from
+     *            the first slot to clear
+     * @param to
+     *            the slot after the last one to clear
+     * @updates $this.buffer
+     */
+    private void clearSlots(int from, int to) {
+        for (int i = from; i < to; i++) {
+            this.buffer[i] = null;
+        }
+    }
+
+    /**
+     * Doubles the length of $this.buffer, keeping the gap where it is (but
+     * larger).
+     *
+     * @updates $this.buffer, $this.gapEnd
+     */
+    private void grow() {
+        Object[] larger = new Object[2 * this.buffer.length];
+        int afterGap = this.buffer.length - this.gapEnd;
+        System.arraycopy(this.buffer, 0, larger, 0, this.gapStart);
+        System.arraycopy(this.buffer, this.gapEnd, larger,
+                larger.length - afterGap, afterGap);
+        this.gapEnd = larger.length - afterGap;
+        this.buffer = larger;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List5() {
+
+        //Calls method to create new representation of list5
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List5<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List5<?> : ""
+                + "Violation of: source is of dynamic type List5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List5<T> localSource = (List5<T>) source;
+        this.buffer = localSource.buffer;
+        this.gapStart = localSource.gapStart;
+        this.gapEnd = localSource.gapEnd;
+        this.leftLength = localSource.leftLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        //Bring the gap to the cursor, making room if it is empty
+        this.moveGapToCursor();
+        if (this.gapStart == this.gapEnd) {
+            this.grow();
+        }
+
+        //The last slot of the gap becomes the front of this.right
+        this.gapEnd--;
+        this.buffer[this.gapEnd] = x;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //Bring the gap to the cursor; the front of this.right follows it
+        this.moveGapToCursor();
+        @SuppressWarnings("unchecked")
+        T removed = (T) this.buffer[this.gapEnd];
+
+        //The removed entry's slot joins the gap
+        this.buffer[this.gapEnd] = null;
+        this.gapEnd++;
+
+        assert this.conventionHolds();
+
+        return removed;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //Only the cursor moves; the gap follows on the next edit
+        this.leftLength++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        //Only the cursor moves; the gap follows on the next edit
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+
+        return this.length() - this.leftLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List5}.
+     */
+    private final class List5Iterator implements Iterator<T> {
+
+        /**
+         * Position of the next entry in this.left * this.right.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private List5Iterator() {
+            this.position = 0;
+            assert List5.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < List5.this.length();
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = List5.this.entryAt(this.position);
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final T rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        return this.entryAt(this.leftLength);
+    }
+
+    @Override
+    public final T replaceRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //Overwrite the entry in place; the gap does not need to move
+        int index = this.leftLength;
+        if (index >= this.gapStart) {
+            index += this.gapEnd - this.gapStart;
+        }
+        @SuppressWarnings("unchecked")
+        T replaced = (T) this.buffer[index];
+        this.buffer[index] = x;
+
+        assert this.conventionHolds();
+
+        return replaced;
+    }
+
+    @Override
+    public final void moveToFinish() {
+
+        //Only the cursor moves; the gap follows on the next edit
+        this.leftLength = this.length();
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        //Only the cursor moves; the gap follows on the next edit
+        this.leftLength--;
+
+        assert this.conventionHolds();
+    }
+
+}
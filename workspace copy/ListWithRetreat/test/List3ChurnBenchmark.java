@@ -0,0 +1,116 @@
+import java.lang.management.ManagementFactory;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures bytes allocated per operation when a {@code List3} is used as a
+ * queue (adding at the finish, removing at the start), with node pooling and
+ * with pooling disabled (pool capacity 0), in which case every insertion
+ * allocates a node as {@code List3} did before it recycled nodes.
+ *
+ * <p>
+ * Run with assertion checking off; allocation is read from the HotSpot
+ * per-thread allocation counter.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class List3ChurnBenchmark {
+
+    /**
+     * Number of entries kept in the queue.
+     */
+    private static final int QUEUE_LENGTH = 32;
+
+    /**
+     * Number of add/remove pairs per measured round.
+     */
+    private static final int OPERATIONS = 5_000_000;
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private List3ChurnBenchmark() {
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     *
+     * @return the allocated byte count
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Runs {@code OPERATIONS} add-at-finish/remove-at-start pairs on a
+     * {@code List3} holding {@code QUEUE_LENGTH} entries.
+     *
+     * @param list
+     *            the list to churn
+     * @param item
+     *            the entry to add each time
+     * @return a value depending on the removed entries, to keep the JIT honest
+     */
+    private static int churn(List3<Integer> list, Integer item) {
+        int sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            list.moveToFinish();
+            list.addRightFront(item);
+            list.moveToStart();
+            sum += list.removeRightFront();
+        }
+        return sum;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        Integer item = 7;
+
+        List3<Integer> pooled = new List3<Integer>();
+        List3<Integer> unpooled = new List3<Integer>(0);
+        for (int i = 0; i < QUEUE_LENGTH; i++) {
+            pooled.addRightFront(item);
+            unpooled.addRightFront(item);
+        }
+
+        int check = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long before = allocatedBytes();
+            long start = System.nanoTime();
+            check += churn(pooled, item);
+            long pooledTime = System.nanoTime() - start;
+            long pooledBytes = allocatedBytes() - before;
+
+            before = allocatedBytes();
+            start = System.nanoTime();
+            check += churn(unpooled, item);
+            long unpooledTime = System.nanoTime() - start;
+            long unpooledBytes = allocatedBytes() - before;
+
+            out.println("round " + round + ": pooled "
+                    + ((double) pooledBytes / OPERATIONS) + " bytes/op, "
+                    + (pooledTime / OPERATIONS) + " ns/op;  unpooled "
+                    + ((double) unpooledBytes / OPERATIONS) + " bytes/op, "
+                    + (unpooledTime / OPERATIONS) + " ns/op");
+        }
+        out.println("(checksum " + check + ")");
+
+        out.close();
+    }
+
+}
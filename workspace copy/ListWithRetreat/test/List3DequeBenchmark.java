@@ -0,0 +1,186 @@
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures producer/consumer throughput of {@code List3Deque} against a
+ * {@code List3} used as a work queue behind {@code synchronized} blocks, with
+ * producers adding at one end and consumers removing at the other.
+ *
+ * <p>
+ * Run with assertion checking off.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class List3DequeBenchmark {
+
+    /**
+     * Number of entries each producer adds.
+     */
+    private static final int PER_PRODUCER = 2_000_000;
+
+    /**
+     * Thread counts (producers = consumers) to measure.
+     */
+    private static final int[] PAIRS = { 1, 2, 4 };
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 3;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private List3DequeBenchmark() {
+    }
+
+    /**
+     * Interface for a queue under test.
+     */
+    private interface WorkQueue {
+
+        /**
+         * Adds {@code x} at the back.
+         *
+         * @param x
+         *            the entry to add
+         */
+        void put(Integer x);
+
+        /**
+         * Removes the entry at the front, waiting for one if necessary.
+         *
+         * @return the removed entry
+         * @throws InterruptedException
+         *             if interrupted while waiting
+         */
+        Integer take() throws InterruptedException;
+
+    }
+
+    /**
+     * {@code List3} behind {@code synchronized} blocks, as used before
+     * {@code List3Deque}.
+     */
+    private static final class SynchronizedList3 implements WorkQueue {
+
+        /**
+         * The list, also used as the monitor.
+         */
+        private final List3<Integer> list = new List3<Integer>();
+
+        @Override
+        public void put(Integer x) {
+            synchronized (this.list) {
+                this.list.moveToFinish();
+                this.list.addRightFront(x);
+                this.list.notifyAll();
+            }
+        }
+
+        @Override
+        public Integer take() throws InterruptedException {
+            synchronized (this.list) {
+                this.list.moveToStart();
+                while (this.list.rightLength() == 0) {
+                    this.list.wait();
+                }
+                return this.list.removeRightFront();
+            }
+        }
+
+    }
+
+    /**
+     * {@code List3Deque} used as a queue.
+     */
+    private static final class Deque implements WorkQueue {
+
+        /**
+         * The deque.
+         */
+        private final List3Deque<Integer> deque = new List3Deque<Integer>();
+
+        @Override
+        public void put(Integer x) {
+            this.deque.addLast(x);
+        }
+
+        @Override
+        public Integer take() throws InterruptedException {
+            return this.deque.takeFirst();
+        }
+
+    }
+
+    /**
+     * Runs {@code pairs} producers and {@code pairs} consumers through
+     * {@code queue} and returns the throughput.
+     *
+     * @param queue
+     *            the queue under test
+     * @param pairs
+     *            the number of producers (and of consumers)
+     * @return entries transferred per second
+     * @throws InterruptedException
+     *             if interrupted while joining the threads
+     */
+    private static double run(WorkQueue queue, int pairs)
+            throws InterruptedException {
+        Thread[] threads = new Thread[2 * pairs];
+        Integer item = 1;
+        for (int t = 0; t < pairs; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    queue.put(item);
+                }
+            });
+            threads[pairs + t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < PER_PRODUCER; i++) {
+                        queue.take();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        return (double) pairs * PER_PRODUCER * 1e9 / elapsed;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     * @throws InterruptedException
+     *             if interrupted while running the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SimpleWriter out = new SimpleWriter1L();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (int pairs : PAIRS) {
+                double locked = run(new SynchronizedList3(), pairs);
+                double deque = run(new Deque(), pairs);
+                out.println("round " + round + ", " + pairs + " producer(s) / "
+                        + pairs + " consumer(s): synchronized List3 "
+                        + Math.round(locked / 1000) + "K/s, List3Deque "
+                        + Math.round(deque / 1000) + "K/s");
+            }
+        }
+
+        out.close();
+    }
+
+}
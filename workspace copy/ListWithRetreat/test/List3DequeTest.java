@@ -0,0 +1,108 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code List3Deque}.
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class List3DequeTest {
+
+    @Test
+    public final void testAddFirstPollFirst() {
+        List3Deque<String> deque = new List3Deque<String>();
+        deque.addFirst("red");
+        deque.addFirst("green");
+        deque.addFirst("blue");
+        assertEquals(3, deque.size());
+        assertEquals("blue", deque.pollFirst());
+        assertEquals("green", deque.pollFirst());
+        assertEquals("red", deque.pollFirst());
+        assertNull(deque.pollFirst());
+        assertEquals(0, deque.size());
+    }
+
+    @Test
+    public final void testAddLastPollFirst() {
+        List3Deque<String> deque = new List3Deque<String>();
+        for (int i = 0; i < 10; i++) {
+            deque.addLast(Integer.toString(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.toString(i), deque.pollFirst());
+        }
+        assertNull(deque.pollLast());
+    }
+
+    @Test
+    public final void testBothEnds() {
+        List3Deque<String> deque = new List3Deque<String>();
+        deque.addLast("b");
+        deque.addFirst("a");
+        deque.addLast("c");
+        deque.addLast("d");
+        deque.addLast("e");
+        assertEquals("e", deque.pollLast());
+        assertEquals("a", deque.pollFirst());
+        assertEquals("d", deque.pollLast());
+        assertEquals("b", deque.pollFirst());
+        assertEquals("c", deque.pollLast());
+        assertNull(deque.pollFirst());
+    }
+
+    @Test
+    public final void testTimedPollEmpty() throws InterruptedException {
+        List3Deque<String> deque = new List3Deque<String>();
+        assertNull(deque.pollFirst(10, TimeUnit.MILLISECONDS));
+        assertNull(deque.pollLast(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public final void testProducersAndConsumers() throws InterruptedException {
+        final List3Deque<Integer> deque = new List3Deque<Integer>();
+        final int perProducer = 20000;
+        final AtomicLong sum = new AtomicLong();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < 2; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    deque.addLast(i);
+                }
+            });
+        }
+        for (int t = 2; t < 4; t++) {
+            final boolean first = t == 2;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        int x;
+                        if (first) {
+                            x = deque.takeFirst();
+                        } else {
+                            x = deque.takeLast();
+                        }
+                        sum.addAndGet(x);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long expected = 2L * perProducer * (perProducer + 1) / 2;
+        assertEquals(expected, sum.get());
+        assertEquals(0, deque.size());
+    }
+
+}
@@ -1,3 +1,11 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
 import components.list.List;
 import components.list.List1L;
 
@@ -16,4 +24,305 @@ public class List3Test extends ListTest {
         return new List1L<String>();
     }
 
+    /*
+     * Test cases for List3-specific methods.
+     */
+
+    @Test
+    public final void testCheckingSampled() {
+        List3.Checking saved = List3.checking();
+        List3.setChecking(List3.Checking.SAMPLED);
+        try {
+            /*
+             * Set up variables
+             */
+            List<String> list1 = this.createFromArgsTest(2, "red", "green",
+                    "blue", "yellow");
+            List<String> list2 = this.createFromArgsRef(1, "red", "green",
+                    "blue", "yellow", "orange");
+            List3<String> list3 = (List3<String>) list1;
+            int checksBefore = list3.conventionChecks();
+            /*
+             * Call methods under test, well over SAMPLE_PERIOD = 64 times
+             */
+            final int rounds = 100;
+            for (int i = 0; i < rounds; i++) {
+                list1.advance();
+                list1.retreat();
+            }
+            list1.moveToFinish();
+            list1.addRightFront("orange");
+            list1.moveToStart();
+            list1.advance();
+            int checks = list3.conventionChecks() - checksBefore;
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertEquals(List3.Checking.SAMPLED, List3.checking());
+            assertEquals(list2, list1);
+            assertTrue(checks >= 2 * rounds / 64);
+            assertTrue(checks < 2 * rounds);
+        } finally {
+            List3.setChecking(saved);
+        }
+    }
+
+    @Test
+    public final void testNoPool() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>(0);
+        List<String> list2 = this.createFromArgsRef(0, "red", "blue");
+        /*
+         * Call methods under test
+         */
+        list1.addRightFront("red");
+        list1.addRightFront("green");
+        String removed = list1.removeRightFront();
+        list1.advance();
+        list1.addRightFront("blue");
+        list1.moveToStart();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("green", removed);
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testCheckingOff() {
+        List3.Checking saved = List3.checking();
+        List3.setChecking(List3.Checking.OFF);
+        try {
+            /*
+             * Set up variables
+             */
+            List<String> list1 = this.createFromArgsTest(1, "red", "green");
+            List<String> list2 = this.createFromArgsRef(0, "green");
+            /*
+             * Call methods under test
+             */
+            list1.retreat();
+            String removed = list1.removeRightFront();
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertEquals("red", removed);
+            assertEquals(list2, list1);
+        } finally {
+            List3.setChecking(saved);
+        }
+    }
+
+    @Test
+    public final void testJumpToForwardAndBack() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < 300; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+        }
+        /*
+         * Call method under test at positions near and far from checkpoints,
+         * comparing with the reference after each jump
+         */
+        int[] positions = { 250, 3, 300, 0, 161, 175, 47, 299 };
+        for (int p : positions) {
+            list1.jumpTo(p);
+            list2.moveToStart();
+            for (int i = 0; i < p; i++) {
+                list2.advance();
+            }
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertEquals(list2, list1);
+        }
+    }
+
+    @Test
+    public final void testJumpToAfterEdits() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < 100; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+        }
+        list1.jumpTo(80);
+        list1.removeRightFront();
+        list1.addRightFront("new");
+        list1.removeRightFront();
+        /*
+         * Call method under test
+         */
+        list1.jumpTo(90);
+        for (int i = 0; i < 80; i++) {
+            list2.advance();
+        }
+        list2.removeRightFront();
+        for (int i = 0; i < 10; i++) {
+            list2.advance();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testAppendList3() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> ext1 = this.createFromArgsTest(1, "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow");
+        List<String> ext2 = this.createFromArgsTest(0);
+        /*
+         * Call method under test
+         */
+        list1.append(ext1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(ext2, ext1);
+    }
+
+    @Test
+    public final void testSplitAtCursor() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>();
+        list1.addRightFront("blue");
+        list1.addRightFront("green");
+        list1.addRightFront("red");
+        list1.advance();
+        List<String> list2 = this.createFromArgsRef(1, "red");
+        List<String> rest2 = this.createFromArgsRef(0, "green", "blue");
+        /*
+         * Call method under test
+         */
+        List<String> rest1 = list1.splitAtCursor();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(rest2, rest1);
+    }
+
+    @Test
+    public final void testInsertAllAtCursor() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>();
+        list1.addRightFront("blue");
+        list1.addRightFront("red");
+        list1.advance();
+        List3<String> source1 = new List3<String>();
+        source1.addRightFront("yellow");
+        source1.addRightFront("green");
+        source1.advance();
+        List<String> list2 = this.createFromArgsRef(1, "red", "green",
+                "yellow", "blue");
+        List<String> source2 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.insertAllAtCursor(source1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(source2, source1);
+    }
+
+    @Test
+    public final void testChurnReusesNodes() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.constructorTest();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < 100; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+        }
+        /*
+         * Call methods under test, removing more nodes than the free list
+         * keeps and then adding them back, across a clear and a transfer
+         */
+        while (list1.rightLength() > 0) {
+            assertEquals(list2.removeRightFront(), list1.removeRightFront());
+        }
+        list1.clear();
+        for (int i = 0; i < 100; i++) {
+            list1.addRightFront("x" + i);
+            list2.addRightFront("x" + i);
+        }
+        List<String> list3 = this.constructorTest();
+        list3.transferFrom(list1);
+        list1.addRightFront("after");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list3);
+        assertEquals(this.createFromArgsRef(0, "after"), list1);
+    }
+
+    @Test
+    public final void testParallelStream() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.constructorTest();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list1.advance();
+            expected.append(i);
+        }
+        list1.moveToStart();
+        /*
+         * Call method under test
+         */
+        String joined = StreamSupport.stream(list1.spliterator(), true)
+                .collect(Collectors.joining());
+        long count = StreamSupport.stream(list1.spliterator(), true)
+                .filter(s -> s.endsWith("7")).count();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected.toString(), joined);
+        assertEquals(1000, count);
+    }
+
+    @Test
+    public final void testForEach() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green",
+                "blue");
+        StringBuilder seen = new StringBuilder();
+        /*
+         * Call method under test
+         */
+        list1.forEach(seen::append);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("redgreenblue", seen.toString());
+    }
+
 }
@@ -0,0 +1,107 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List4}.
+ */
+public class List4Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List4<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /*
+     * Test cases spanning several nodes of the unrolled list.
+     */
+
+    @Test
+    public final void testAddRightFrontManyNodes() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.constructorTest();
+        List<String> list2 = this.constructorRef();
+        /*
+         * Call method under test, inserting in the middle so nodes split
+         */
+        for (int i = 0; i < 200; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+            if (i % 3 == 0) {
+                list1.advance();
+                list2.advance();
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testRemoveRightFrontManyNodes() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.constructorTest();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < 200; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+            list1.advance();
+            list2.advance();
+        }
+        list1.moveToStart();
+        list2.moveToStart();
+        /*
+         * Call method under test, removing every other entry
+         */
+        while (list1.rightLength() > 1) {
+            assertEquals(list2.removeRightFront(), list1.removeRightFront());
+            list1.advance();
+            list2.advance();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testRetreatManyNodes() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.constructorTest();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < 100; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+        }
+        list1.moveToFinish();
+        list2.moveToFinish();
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < 70; i++) {
+            list1.retreat();
+            list2.retreat();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(list2.rightFront(), list1.rightFront());
+    }
+
+}
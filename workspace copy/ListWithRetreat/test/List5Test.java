@@ -0,0 +1,86 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List5}.
+ */
+public class List5Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List5<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /*
+     * Test cases moving the gap and growing the buffer.
+     */
+
+    @Test
+    public final void testEditsAfterCursorJumps() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.constructorTest();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < 40; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+        }
+        /*
+         * Call methods under test, editing at the finish, the start, and in
+         * the middle so the gap has to move both ways
+         */
+        list1.moveToFinish();
+        list2.moveToFinish();
+        list1.addRightFront("finish");
+        list2.addRightFront("finish");
+        list1.moveToStart();
+        list2.moveToStart();
+        assertEquals(list2.removeRightFront(), list1.removeRightFront());
+        for (int i = 0; i < 17; i++) {
+            list1.advance();
+            list2.advance();
+        }
+        list1.addRightFront("middle");
+        list2.addRightFront("middle");
+        list1.retreat();
+        list2.retreat();
+        assertEquals(list2.removeRightFront(), list1.removeRightFront());
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testRightFrontAndReplace() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green",
+                "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "yellow",
+                "blue");
+        /*
+         * Call methods under test
+         */
+        String front = list1.rightFront();
+        String replaced = list1.replaceRightFront("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("green", front);
+        assertEquals("green", replaced);
+        assertEquals(list2, list1);
+    }
+
+}
@@ -77,8 +77,22 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
      *            {@code String} to initialize from
      */
     public NaturalNumber3(String s) {
+        this(s, false);
+    }
+
+    /**
+     * Constructor from {@code String} that, if {@code trusted}, skips checking
+     * (with assertion checking on) that {@code s} depicts a natural number.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     * @param trusted
+     *            whether {@code s} is known to depict a natural number
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     */
+    public NaturalNumber3(String s, boolean trusted) {
         assert s != null : "Violation of: s is not null";
-        assert s.matches("0|[1-9]\\d*") : ""
+        assert trusted || s.matches("0|[1-9]\\d*") : ""
                 + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
 
         //If-statement checks if string is 0 to make empty string or store
@@ -100,15 +114,18 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
     public NaturalNumber3(NaturalNumber n) {
         assert n != null : "Violation of: n is not null";
 
-        //Converts nn to string and stores it
-        String nn = n.toString();
-
-        //If-statement checks if inputed nn is 0 before converting to empty string
-        //or string with nn's value
-        if (!nn.equals("0")) {
-            this.rep = nn;
+        //Shares the rep of another NaturalNumber3 (Strings are immutable);
+        //else converts n to string and stores it, checking if it is 0 before
+        //converting to empty string or string with n's value
+        if (n instanceof NaturalNumber3) {
+            this.rep = ((NaturalNumber3) n).rep;
         } else {
-            this.createNewRep();
+            String nn = n.toString();
+            if (!nn.equals("0")) {
+                this.rep = nn;
+            } else {
+                this.createNewRep();
+            }
         }
 
     }
@@ -195,4 +212,19 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         return this.rep.length() == 0;
     }
 
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final String toString() {
+
+        //this.rep already is the depiction, except for 0
+        String result = this.rep;
+        if (result.length() == 0) {
+            result = "0";
+        }
+        return result;
+    }
+
 }
@@ -0,0 +1,352 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a growable array of decimal digit
+ * characters, most significant first, with implementations of primary
+ * methods.
+ *
+ * <p>
+ * Like {@code NaturalNumber3} it keeps the decimal depiction, but in a buffer
+ * with an explicit length instead of a {@code String}, so {@code multiplyBy10}
+ * appends one character (amortized O(1), doubling the buffer when it is full)
+ * and {@code divideBy10} drops the last one (O(1)), neither of them
+ * allocating. {@code toString} builds its {@code String} once and keeps it
+ * until the next change to {@code this}.
+ * </p>
+ *
+ * @convention <pre>
+ * 0 <= $this.length <= |$this.digits|  and
+ * [all characters of $this.digits[0, $this.length) are '0' through '9']  and
+ * ($this.length = 0  or  $this.digits[0] /= '0')  and
+ * ($this.depiction = null  or
+ *  $this.depiction = [if $this.length = 0 then "0"
+ *                     else $this.digits[0, $this.length)])
+ * </pre>
+ * @correspondence <pre>
+ * this = [if $this.length = 0 then 0
+ *         else the decimal number whose ordinary depiction is
+ *         $this.digits[0, $this.length)]
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class NaturalNumber3a extends NaturalNumberSecondary {
+
+    /**
+     * Length of the buffer in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Decimal digits, most significant first.
+     */
+    private char[] digits;
+
+    /**
+     * Number of digits in use.
+     */
+    private int length;
+
+    /**
+     * Depiction last reported by {@code toString}, or null if {@code this}
+     * has changed since.
+     */
+    private String depiction;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * <p>
+     * Only the parts that take O(1) time, and allocate nothing, are checked,
+     * since this is called from {@code multiplyBy10} and {@code divideBy10},
+     * which are meant to take O(1) time, and from {@code toString}: the first
+     * and last digits, and the length of the cached depiction.
+     * {@code digitsAreValid} checks every digit, and the contents of the
+     * depiction, where digits are set in bulk.
+     * </p>
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.length <= |$this.digits|  and
+     * [the first and last characters of $this.digits[0, $this.length) are
+     *  '0' through '9']  and
+     * ($this.length = 0  or  $this.digits[0] /= '0')  and
+     * ($this.depiction = null  or
+     *  |$this.depiction| = max($this.length, 1))
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.length : "Violation of: 0 <= $this.length";
+        assert this.length <= this.digits.length : ""
+                + "Violation of: $this.length <= |$this.digits|";
+        if (this.length > 0) {
+            char last = this.digits[this.length - 1];
+            assert '1' <= this.digits[0] && this.digits[0] <= '9'
+                    && '0' <= last && last <= '9' : ""
+                            + "Violation of: [all characters of $this.digits"
+                            + "[0, $this.length) are '0' through '9']  and"
+                            + "  $this.digits[0] /= '0'";
+        }
+        assert this.depiction == null
+                || this.depiction.length() == Math.max(this.length, 1) : ""
+                        + "Violation of: $this.depiction = null  or"
+                        + "  [$this.depiction depicts this]";
+        return true;
+    }
+
+    /**
+     * Checks every digit of the representation, and that the cached depiction,
+     * if any, matches them, in O($this.length) time.
+     *
+     * @return true if they are valid (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @ensures <pre>
+     * digitsAreValid =
+     *  [all characters of $this.digits[0, $this.length) are '0' through '9']
+     *  and
+     *  ($this.depiction = null  or
+     *   $this.depiction = [if $this.length = 0 then "0"
+     *                      else $this.digits[0, $this.length)])
+     * </pre>
+     */
+    private boolean digitsAreValid() {
+        for (int i = 0; i < this.length; i++) {
+            assert '0' <= this.digits[i] && this.digits[i] <= '9' : ""
+                    + "Violation of: [all characters of $this.digits[0,"
+                    + " $this.length) are '0' through '9']";
+        }
+        if (this.depiction != null) {
+            if (this.length == 0) {
+                assert this.depiction.equals("0") : ""
+                        + "Violation of: [$this.depiction depicts this]";
+            } else {
+                for (int i = 0; i < this.length; i++) {
+                    assert this.depiction.charAt(i) == this.digits[i] : ""
+                            + "Violation of: [$this.depiction depicts this]";
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        //Creates zero, with no digits in use
+        this.digits = new char[INITIAL_CAPACITY];
+        this.length = 0;
+        this.depiction = null;
+
+    }
+
+    /**
+     * Sets {@code this} to the number whose decimal depiction is {@code s}.
+     *
+     * @param s
+     *            the decimal depiction
+     * @replaces $this.digits, $this.length, $this.depiction
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures s = TO_STRING(this)
+     */
+    private void setFromDepiction(String s) {
+        if (s.equals("0")) {
+            this.createNewRep();
+        } else {
+            this.digits = new char[Math.max(s.length(), INITIAL_CAPACITY)];
+            s.getChars(0, s.length(), this.digits, 0);
+            this.length = s.length();
+        }
+        this.depiction = s;
+
+        assert this.digitsAreValid();
+    }
+
+    /**
+     * Builds the decimal depiction of {@code this} from $this.digits.
+     *
+     * @return the depiction
+     * @ensures buildDepiction = TO_STRING(this)
+     */
+    private String buildDepiction() {
+        String result = "0";
+        if (this.length > 0) {
+            result = new String(this.digits, 0, this.length);
+        }
+        return result;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber3a() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber3a(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.setFromDepiction(Integer.toString(i));
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber3a(String s) {
+        this(s, false);
+    }
+
+    /**
+     * Constructor from {@code String} that, if {@code trusted}, skips checking
+     * (with assertion checking on) that {@code s} depicts a natural number.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     * @param trusted
+     *            whether {@code s} is known to depict a natural number
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     */
+    public NaturalNumber3a(String s, boolean trusted) {
+        assert s != null : "Violation of: s is not null";
+        assert trusted || s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.setFromDepiction(s);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber3a(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.setFromDepiction(n.toString());
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber3a : ""
+                + "Violation of: source is of dynamic type NaturalNumber3a";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber3a localSource = (NaturalNumber3a) source;
+        this.digits = localSource.digits;
+        this.length = localSource.length;
+        this.depiction = localSource.depiction;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        //Appends k, unless this is zero and k would be a leading zero,
+        //doubling the buffer first when it is full
+        if (this.length > 0 || k != 0) {
+            if (this.length == this.digits.length) {
+                this.digits = Arrays.copyOf(this.digits, 2 * this.length);
+            }
+            this.digits[this.length] = (char) ('0' + k);
+            this.length++;
+            this.depiction = null;
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int divideBy10() {
+
+        //Drops the last digit, if there is one, and reports it
+        int k = 0;
+        if (this.length > 0) {
+            this.length--;
+            k = this.digits[this.length] - '0';
+            this.depiction = null;
+        }
+
+        assert this.conventionHolds();
+
+        return k;
+    }
+
+    @Override
+    public final boolean isZero() {
+        assert this.conventionHolds();
+        return this.length == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final String toString() {
+        assert this.conventionHolds();
+
+        if (this.depiction == null) {
+            this.depiction = this.buildDepiction();
+        }
+        return this.depiction;
+    }
+
+}
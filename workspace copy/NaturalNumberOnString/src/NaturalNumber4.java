@@ -0,0 +1,1278 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as an array of base-10<sup>9</sup> limbs,
+ * least significant first, with implementations of primary methods and of the
+ * arithmetic secondary methods.
+ *
+ * <p>
+ * Each limb holds nine decimal digits, so {@code add}, {@code subtract},
+ * {@code increment} and {@code decrement} are single passes over the limbs,
+ * {@code divide} is Knuth's long division of the limbs, and {@code power}
+ * squares and multiplies; none of them goes through {@code multiplyBy10} and
+ * {@code divideBy10} one digit at a time. {@code multiply} (and so
+ * {@code power}) multiplies small numbers limb by limb and large ones by
+ * Karatsuba's method or, larger still, by Toom-3, which split each factor in
+ * two or three pieces and need only three or five products of pieces instead
+ * of four or nine. Because the base is a power of ten, {@code toString} and
+ * the {@code String} constructor just convert nine digits per limb.
+ * </p>
+ *
+ * <p>
+ * When the shorter factor has at least {@code PARALLEL_THRESHOLD} limbs, the
+ * products of pieces, and in {@code power} the square and the product done
+ * for the same bit, are computed as {@code ForkJoinTask}s: in the pool of the
+ * calling thread if it runs in a {@code ForkJoinPool}, else in the common
+ * pool.
+ * </p>
+ *
+ * @convention <pre>
+ * 0 <= $this.length <= |$this.limbs|  and
+ * [the entries of $this.limbs[0, $this.length) are in [0, BASE)]  and
+ * ($this.length = 0  or  $this.limbs[$this.length - 1] /= 0)
+ * </pre>
+ * @correspondence <pre>
+ * this = [sum of $this.limbs[i] * BASE^i, for i from 0 to $this.length - 1]
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /**
+     * Radix of the limbs.
+     */
+    private static final int BASE = 1_000_000_000;
+
+    /**
+     * Number of decimal digits in one limb.
+     */
+    private static final int BASE_DIGITS = 9;
+
+    /**
+     * Length of the array in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Smallest number of limbs, in the shorter factor, multiplied by
+     * Karatsuba's method rather than limb by limb.
+     */
+    private static final int KARATSUBA_THRESHOLD = 48;
+
+    /**
+     * Smallest number of limbs, in the shorter factor, multiplied by Toom-3
+     * rather than by Karatsuba's method.
+     */
+    private static final int TOOM3_THRESHOLD = 256;
+
+    /**
+     * Smallest number of limbs, in the shorter factor, for which the products
+     * of pieces are computed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Task computing the product of two numbers given by their limbs.
+     */
+    private static final class ProductTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Limbs of the first factor.
+         */
+        private final int[] a;
+
+        /**
+         * Limbs of the second factor.
+         */
+        private final int[] b;
+
+        /**
+         * Constructor.
+         *
+         * @param a
+         *            the limbs of the first factor, of exactly its significant
+         *            length
+         * @param b
+         *            the limbs of the second factor, of exactly its
+         *            significant length
+         */
+        private ProductTask(int[] a, int[] b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected int[] compute() {
+            return product(this.a, this.b);
+        }
+
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Limbs, least significant first.
+     */
+    private int[] limbs;
+
+    /**
+     * Number of limbs in use.
+     */
+    private int length;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.length <= |$this.limbs|  and
+     * [the entries of $this.limbs[0, $this.length) are in [0, BASE)]  and
+     * ($this.length = 0  or  $this.limbs[$this.length - 1] /= 0)
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.length : "Violation of: 0 <= $this.length";
+        assert this.length <= this.limbs.length : ""
+                + "Violation of: $this.length <= |$this.limbs|";
+        for (int i = 0; i < this.length; i++) {
+            assert 0 <= this.limbs[i] && this.limbs[i] < BASE : ""
+                    + "Violation of: [the entries of $this.limbs[0,"
+                    + " $this.length) are in [0, BASE)]";
+        }
+        assert this.length == 0 || this.limbs[this.length - 1] != 0 : ""
+                + "Violation of: $this.length = 0  or"
+                + "  $this.limbs[$this.length - 1] /= 0";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        //Creates zero, with no limbs in use
+        this.limbs = new int[INITIAL_CAPACITY];
+        this.length = 0;
+
+    }
+
+    /**
+     * Makes room for at least {@code capacity} limbs, keeping the limbs in
+     * use.
+     *
+     * @param capacity
+     *            the number of limbs needed
+     * @updates $this.limbs
+     * @ensures <pre>
+     * |$this.limbs| >= capacity  and
+     * $this.limbs[0, $this.length) = #$this.limbs[0, $this.length)
+     * </pre>
+     */
+    private void ensureCapacity(int capacity) {
+        if (this.limbs.length < capacity) {
+            this.limbs = Arrays.copyOf(this.limbs,
+                    Math.max(capacity, 2 * this.limbs.length));
+        }
+    }
+
+    /**
+     * Sets {@code this} to the number whose limbs are {@code a[0, aLength)},
+     * which may have leading zero limbs.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param aLength
+     *            the number of limbs of {@code a} to use
+     * @aliases reference a
+     * @replaces $this.limbs, $this.length
+     * @requires <pre>
+     * 0 <= aLength <= |a|  and
+     * [the entries of a[0, aLength) are in [0, BASE)]
+     * </pre>
+     * @ensures this = [the number whose limbs are a[0, aLength)]
+     */
+    private void setLimbs(int[] a, int aLength) {
+        this.limbs = a;
+        this.length = significantLength(a, aLength);
+    }
+
+    /**
+     * Sets {@code this} to the number whose decimal depiction is {@code s},
+     * nine digits per limb.
+     *
+     * @param s
+     *            the decimal depiction
+     * @replaces $this.limbs, $this.length
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures s = TO_STRING(this)
+     */
+    private void setFromDecimal(String s) {
+        int count = (s.length() + BASE_DIGITS - 1) / BASE_DIGITS;
+        int[] a = new int[Math.max(count, INITIAL_CAPACITY)];
+        int end = s.length();
+        for (int i = 0; i < count; i++) {
+            int start = Math.max(0, end - BASE_DIGITS);
+            int limb = 0;
+            for (int j = start; j < end; j++) {
+                limb = limb * RADIX + (s.charAt(j) - '0');
+            }
+            a[i] = limb;
+            end = start;
+        }
+        this.setLimbs(a, count);
+    }
+
+    /**
+     * Reports the number of limbs of {@code a[0, aLength)} up to and including
+     * the most significant non-zero one.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param aLength
+     *            the number of limbs of {@code a} to consider
+     * @return the number of significant limbs
+     * @requires 0 <= aLength <= |a|
+     * @ensures <pre>
+     * 0 <= significantLength <= aLength  and
+     * [the entries of a[significantLength, aLength) are 0]  and
+     * (significantLength = 0  or  a[significantLength - 1] /= 0)
+     * </pre>
+     */
+    private static int significantLength(int[] a, int aLength) {
+        int n = aLength;
+        while (n > 0 && a[n - 1] == 0) {
+            n--;
+        }
+        return n;
+    }
+
+    /**
+     * Compares the numbers whose significant limbs are {@code a[0, aLength)}
+     * and {@code b[0, bLength)}.
+     *
+     * @param a
+     *            the limbs of the first number
+     * @param aLength
+     *            the number of significant limbs of the first number
+     * @param b
+     *            the limbs of the second number
+     * @param bLength
+     *            the number of significant limbs of the second number
+     * @return negative, zero, or positive as the first number is less than,
+     *         equal to, or greater than the second
+     */
+    private static int compareLimbs(int[] a, int aLength, int[] b,
+            int bLength) {
+        int result = Integer.compare(aLength, bLength);
+        int i = aLength - 1;
+        while (result == 0 && i >= 0) {
+            result = Integer.compare(a[i], b[i]);
+            i--;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies the numbers whose limbs are {@code a[0, aLength)} and
+     * {@code b[0, bLength)}, limb by limb.
+     *
+     * @param a
+     *            the limbs of the first factor
+     * @param aLength
+     *            the number of limbs of the first factor
+     * @param b
+     *            the limbs of the second factor
+     * @param bLength
+     *            the number of limbs of the second factor
+     * @return the limbs of the product, of length aLength + bLength (possibly
+     *         with leading zero limbs)
+     */
+    private static int[] multiplyLimbs(int[] a, int aLength, int[] b,
+            int bLength) {
+        int[] product = new int[aLength + bLength];
+        for (int i = 0; i < aLength; i++) {
+            long ai = a[i];
+            if (ai != 0) {
+                //Adds a[i] * b into product, shifted i limbs; each partial
+                //sum stays below BASE^2 + 2 * BASE, well inside a long
+                long carry = 0;
+                for (int j = 0; j < bLength; j++) {
+                    long t = ai * b[j] + product[i + j] + carry;
+                    product[i + j] = (int) (t % BASE);
+                    carry = t / BASE;
+                }
+                product[i + bLength] = (int) carry;
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Reports the limbs of {@code a[from, to)}, or of as much of it as is
+     * inside {@code a}, without leading zero limbs.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param from
+     *            the index of the first limb
+     * @param to
+     *            the index just past the last limb
+     * @return the limbs of the piece, of exactly its significant length
+     * @requires 0 <= from <= to
+     */
+    private static int[] piece(int[] a, int from, int to) {
+        int start = Math.min(from, a.length);
+        int end = Math.min(to, a.length);
+        while (end > start && a[end - 1] == 0) {
+            end--;
+        }
+        return Arrays.copyOfRange(a, start, end);
+    }
+
+    /**
+     * Reports {@code a[0, aLength)} without leading zero limbs.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param aLength
+     *            the number of limbs of {@code a} to consider
+     * @return the limbs, of exactly their significant length
+     * @aliases reference a, if it is returned as is
+     * @requires 0 <= aLength <= |a|
+     */
+    private static int[] trim(int[] a, int aLength) {
+        int n = significantLength(a, aLength);
+        int[] result = a;
+        if (n != a.length) {
+            result = Arrays.copyOf(a, n);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the numbers whose limbs are {@code a} and {@code b}.
+     *
+     * @param a
+     *            the limbs of the first number
+     * @param b
+     *            the limbs of the second number
+     * @return the limbs of the sum, of exactly its significant length
+     */
+    private static int[] sum(int[] a, int[] b) {
+        int[] result = Arrays.copyOf(a, Math.max(a.length, b.length) + 1);
+        addShifted(result, b, 0);
+        return trim(result, result.length);
+    }
+
+    /**
+     * Subtracts the number whose limbs are {@code b} from the number whose
+     * limbs are {@code a}.
+     *
+     * @param a
+     *            the limbs of the minuend
+     * @param b
+     *            the limbs of the subtrahend
+     * @return the limbs of the difference, of exactly its significant length
+     * @requires [a >= b, as numbers]
+     */
+    private static int[] difference(int[] a, int[] b) {
+        int[] result = a.clone();
+        int borrow = 0;
+        int i = 0;
+        while (i < b.length || borrow != 0) {
+            int d = result[i] - borrow;
+            if (i < b.length) {
+                d -= b[i];
+            }
+            borrow = 0;
+            if (d < 0) {
+                d += BASE;
+                borrow = 1;
+            }
+            result[i] = d;
+            i++;
+        }
+        return trim(result, result.length);
+    }
+
+    /**
+     * Multiplies the number whose limbs are {@code a} by {@code k}.
+     *
+     * @param a
+     *            the limbs of the number
+     * @param k
+     *            the factor
+     * @return the limbs of the product, of exactly its significant length
+     * @requires 0 <= k < BASE
+     */
+    private static int[] scale(int[] a, int k) {
+        int[] result = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long t = (long) a[i] * k + carry;
+            result[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        result[a.length] = (int) carry;
+        return trim(result, result.length);
+    }
+
+    /**
+     * Divides the number whose limbs are {@code a} by {@code k}, which divides
+     * it exactly.
+     *
+     * @param a
+     *            the limbs of the number
+     * @param k
+     *            the divisor
+     * @return the limbs of the quotient, of exactly its significant length
+     * @requires 0 < k < BASE  and  [k divides a, as a number]
+     */
+    private static int[] divideExactly(int[] a, int k) {
+        int[] result = new int[a.length];
+        long rest = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long t = rest * BASE + a[i];
+            result[i] = (int) (t / k);
+            rest = t % k;
+        }
+        assert rest == 0 : "Violation of: [k divides a, as a number]";
+        return trim(result, result.length);
+    }
+
+    /**
+     * Adds the number whose limbs are {@code a}, times BASE^{@code shift}, into
+     * the number whose limbs are {@code target}.
+     *
+     * @param target
+     *            the limbs of the number added to
+     * @param a
+     *            the limbs of the number added
+     * @param shift
+     *            the number of limbs {@code a} is shifted by
+     * @updates target
+     * @requires [the sum fits in |target| limbs]
+     * @ensures target = #target + a * BASE^shift, as numbers
+     */
+    private static void addShifted(int[] target, int[] a, int shift) {
+        int carry = 0;
+        int i = 0;
+        while (i < a.length || carry != 0) {
+            int t = target[shift + i] + carry;
+            if (i < a.length) {
+                t += a[i];
+            }
+            carry = 0;
+            if (t >= BASE) {
+                t -= BASE;
+                carry = 1;
+            }
+            target[shift + i] = t;
+            i++;
+        }
+    }
+
+    /**
+     * Multiplies the numbers whose limbs are {@code a} and {@code b}: limb by
+     * limb when the shorter one is below {@code KARATSUBA_THRESHOLD} limbs,
+     * one slice of the longer one at a time when they are of very different
+     * lengths, and otherwise by Karatsuba's method or, from
+     * {@code TOOM3_THRESHOLD} limbs, by Toom-3.
+     *
+     * @param a
+     *            the limbs of the first factor, of exactly its significant
+     *            length
+     * @param b
+     *            the limbs of the second factor, of exactly its significant
+     *            length
+     * @return the limbs of the product, of exactly its significant length
+     */
+    private static int[] product(int[] a, int[] b) {
+        int shorter = Math.min(a.length, b.length);
+        int longer = Math.max(a.length, b.length);
+        int[] result;
+        if (shorter < KARATSUBA_THRESHOLD) {
+            result = multiplyLimbs(a, a.length, b, b.length);
+            result = trim(result, result.length);
+        } else if (2 * shorter <= longer) {
+            result = unbalancedProduct(a, b);
+        } else if (shorter < TOOM3_THRESHOLD) {
+            result = karatsubaProduct(a, b);
+        } else {
+            result = toom3Product(a, b);
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies each {@code x[i]} by {@code y[i]}, as {@code ForkJoinTask}s
+     * run side by side if {@code parallel}, else one after the other.
+     *
+     * @param x
+     *            the limbs of the first factors, each of exactly its
+     *            significant length
+     * @param y
+     *            the limbs of the second factors, each of exactly its
+     *            significant length
+     * @param parallel
+     *            whether to compute the products in parallel
+     * @return the limbs of the products, each of exactly its significant
+     *         length
+     * @requires |x| = |y|
+     */
+    private static int[][] products(int[][] x, int[][] y, boolean parallel) {
+        int[][] result = new int[x.length][];
+        if (parallel) {
+            ProductTask[] tasks = new ProductTask[x.length];
+            for (int i = 0; i < x.length; i++) {
+                tasks[i] = new ProductTask(x[i], y[i]);
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < x.length; i++) {
+                result[i] = tasks[i].join();
+            }
+        } else {
+            for (int i = 0; i < x.length; i++) {
+                result[i] = product(x[i], y[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies the numbers whose limbs are {@code a} and {@code b} by
+     * multiplying the shorter one by each slice of the longer one of the same
+     * length, so each of those products is balanced.
+     *
+     * @param a
+     *            the limbs of the first factor, of exactly its significant
+     *            length
+     * @param b
+     *            the limbs of the second factor, of exactly its significant
+     *            length
+     * @return the limbs of the product, of exactly its significant length
+     * @requires a /= <>  and  b /= <>
+     */
+    private static int[] unbalancedProduct(int[] a, int[] b) {
+        int[] x = a;
+        int[] y = b;
+        if (x.length < y.length) {
+            x = b;
+            y = a;
+        }
+        int slices = (x.length + y.length - 1) / y.length;
+        int[][] xSlices = new int[slices][];
+        int[][] ySlices = new int[slices][];
+        for (int i = 0; i < slices; i++) {
+            xSlices[i] = piece(x, i * y.length, (i + 1) * y.length);
+            ySlices[i] = y;
+        }
+        int[][] p = products(xSlices, ySlices,
+                y.length >= PARALLEL_THRESHOLD);
+
+        int[] result = new int[x.length + y.length];
+        for (int i = 0; i < slices; i++) {
+            addShifted(result, p[i], i * y.length);
+        }
+        return trim(result, result.length);
+    }
+
+    /**
+     * Multiplies the numbers whose limbs are {@code a} and {@code b} by
+     * Karatsuba's method: with each split into a low half and a high half at
+     * h limbs, the three products a0 * b0, a1 * b1 and (a0 + a1) * (b0 + b1)
+     * give the four products of halves the schoolbook method needs.
+     *
+     * @param a
+     *            the limbs of the first factor, of exactly its significant
+     *            length
+     * @param b
+     *            the limbs of the second factor, of exactly its significant
+     *            length
+     * @return the limbs of the product, of exactly its significant length
+     */
+    private static int[] karatsubaProduct(int[] a, int[] b) {
+        int h = (Math.max(a.length, b.length) + 1) / 2;
+        int[] a0 = piece(a, 0, h);
+        int[] a1 = piece(a, h, a.length);
+        int[] b0 = piece(b, 0, h);
+        int[] b1 = piece(b, h, b.length);
+
+        int[][] z = products(new int[][] { a0, a1, sum(a0, a1) },
+                new int[][] { b0, b1, sum(b0, b1) },
+                Math.min(a.length, b.length) >= PARALLEL_THRESHOLD);
+        int[] z0 = z[0];
+        int[] z2 = z[1];
+        int[] z1 = difference(difference(z[2], z0), z2);
+
+        int[] result = new int[a.length + b.length];
+        addShifted(result, z0, 0);
+        addShifted(result, z1, h);
+        addShifted(result, z2, 2 * h);
+        return trim(result, result.length);
+    }
+
+    /**
+     * Multiplies the numbers whose limbs are {@code a} and {@code b} by
+     * Toom-3: with each split into three pieces of k limbs, as the polynomials
+     * a(x) = a0 + a1 x + a2 x^2 and b(x) = b0 + b1 x + b2 x^2 at x = BASE^k,
+     * the five products a(t) * b(t) at t = 0, 1, 2, 3 and infinity determine
+     * the product polynomial r(x) = r0 + r1 x + r2 x^2 + r3 x^3 + r4 x^4. The
+     * points are all non-negative, so every value and every step of the
+     * interpolation below is a natural number.
+     *
+     * @param a
+     *            the limbs of the first factor, of exactly its significant
+     *            length
+     * @param b
+     *            the limbs of the second factor, of exactly its significant
+     *            length
+     * @return the limbs of the product, of exactly its significant length
+     */
+    private static int[] toom3Product(int[] a, int[] b) {
+        final int two = 2;
+        final int three = 3;
+        final int four = 4;
+        final int nine = 9;
+        final int sixteen = 16;
+        final int eightyOne = 81;
+        int k = (Math.max(a.length, b.length) + 2) / 3;
+        int[] a0 = piece(a, 0, k);
+        int[] a1 = piece(a, k, 2 * k);
+        int[] a2 = piece(a, 2 * k, a.length);
+        int[] b0 = piece(b, 0, k);
+        int[] b1 = piece(b, k, 2 * k);
+        int[] b2 = piece(b, 2 * k, b.length);
+
+        //Evaluates a and b at 1, 2 and 3, and multiplies at every point
+        int[][] w = products(new int[][] { a0, a2, sum(sum(a0, a1), a2),
+                sum(sum(a0, scale(a1, two)), scale(a2, four)),
+                sum(sum(a0, scale(a1, three)), scale(a2, nine)) },
+                new int[][] { b0, b2, sum(sum(b0, b1), b2),
+                        sum(sum(b0, scale(b1, two)), scale(b2, four)),
+                        sum(sum(b0, scale(b1, three)), scale(b2, nine)) },
+                Math.min(a.length, b.length) >= PARALLEL_THRESHOLD);
+        int[] r0 = w[0];
+        int[] r4 = w[1];
+        int[] w1 = w[2];
+        int[] w2 = w[3];
+        int[] w3 = w[4];
+
+        //Interpolates:
+        //  u1 = w1 - r0 - r4              = r1 + r2 + r3
+        //  u2 = (w2 - r0 - 16 r4) / 2     = r1 + 2 r2 + 4 r3
+        //  u3 = (w3 - r0 - 81 r4) / 3     = r1 + 3 r2 + 9 r3
+        //  d1 = u2 - u1 = r2 + 3 r3,  d2 = u3 - u2 = r2 + 5 r3
+        int[] u1 = difference(difference(w1, r0), r4);
+        int[] u2 = divideExactly(
+                difference(difference(w2, r0), scale(r4, sixteen)), two);
+        int[] u3 = divideExactly(
+                difference(difference(w3, r0), scale(r4, eightyOne)), three);
+        int[] d1 = difference(u2, u1);
+        int[] d2 = difference(u3, u2);
+        int[] r3 = divideExactly(difference(d2, d1), two);
+        int[] r2 = difference(d1, scale(r3, three));
+        int[] r1 = difference(difference(u1, r2), r3);
+
+        int[] result = new int[a.length + b.length];
+        addShifted(result, r0, 0);
+        addShifted(result, r1, k);
+        addShifted(result, r2, 2 * k);
+        addShifted(result, r3, three * k);
+        addShifted(result, r4, four * k);
+        return trim(result, result.length);
+    }
+
+    /**
+     * Divides the number whose limbs are {@code a[0, aLength)} by the number
+     * whose limbs are {@code b[0, bLength)}, by Knuth's Algorithm D (The Art
+     * of Computer Programming, vol. 2, section 4.3.1).
+     *
+     * @param a
+     *            the limbs of the dividend
+     * @param aLength
+     *            the number of significant limbs of the dividend
+     * @param b
+     *            the limbs of the divisor
+     * @param bLength
+     *            the number of significant limbs of the divisor
+     * @param quotient
+     *            receives the limbs of the quotient
+     * @return the limbs of the remainder, of length bLength (possibly with
+     *         leading zero limbs)
+     * @replaces quotient
+     * @requires <pre>
+     * 2 <= bLength <= aLength  and
+     * |quotient| = aLength - bLength + 1
+     * </pre>
+     * @ensures <pre>
+     * [a[0, aLength) = quotient * b[0, bLength) + divideLimbs, as numbers]  and
+     * [divideLimbs < b[0, bLength), as numbers]
+     * </pre>
+     */
+    private static int[] divideLimbs(int[] a, int aLength, int[] b,
+            int bLength, int[] quotient) {
+        final int n = bLength;
+
+        //Scales both numbers so the divisor's top limb is at least BASE / 2,
+        //which keeps each estimated quotient limb at most 2 too large
+        final long scale = BASE / (b[n - 1] + 1L);
+        int[] v = new int[n];
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+            long t = b[i] * scale + carry;
+            v[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        int[] u = new int[aLength + 1];
+        carry = 0;
+        for (int i = 0; i < aLength; i++) {
+            long t = a[i] * scale + carry;
+            u[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        u[aLength] = (int) carry;
+
+        for (int j = aLength - n; j >= 0; j--) {
+
+            //Estimates the quotient limb from the top two limbs of u and the
+            //top limb of v, then corrects it with the next limb of each
+            long top = (long) u[j + n] * BASE + u[j + n - 1];
+            long qHat = top / v[n - 1];
+            long rHat = top % v[n - 1];
+            boolean estimating = true;
+            while (estimating && (qHat >= BASE
+                    || qHat * v[n - 2] > rHat * BASE + u[j + n - 2])) {
+                qHat--;
+                rHat += v[n - 1];
+                estimating = rHat < BASE;
+            }
+
+            //Subtracts qHat * v from u[j, j + n]
+            carry = 0;
+            long borrow = 0;
+            for (int i = 0; i < n; i++) {
+                long p = qHat * v[i] + carry;
+                carry = p / BASE;
+                long t = u[i + j] - p % BASE - borrow;
+                borrow = 0;
+                if (t < 0) {
+                    t += BASE;
+                    borrow = 1;
+                }
+                u[i + j] = (int) t;
+            }
+            long high = u[j + n] - carry - borrow;
+
+            //qHat was still one too large: adds v back
+            if (high < 0) {
+                qHat--;
+                carry = 0;
+                for (int i = 0; i < n; i++) {
+                    long t = (long) u[i + j] + v[i] + carry;
+                    u[i + j] = (int) (t % BASE);
+                    carry = t / BASE;
+                }
+                high += carry;
+            }
+            u[j + n] = (int) high;
+            quotient[j] = (int) qHat;
+        }
+
+        //The remainder is u[0, n), unscaled
+        int[] remainder = new int[n];
+        long rest = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            long t = rest * BASE + u[i];
+            remainder[i] = (int) (t / scale);
+            rest = t % scale;
+        }
+        return remainder;
+    }
+
+    /**
+     * Reports {@code n} as a {@code NaturalNumber4}: {@code n} itself if it is
+     * one, else a copy.
+     *
+     * @param n
+     *            the number
+     * @return a {@code NaturalNumber4} equal to {@code n}
+     * @aliases reference n, if n is a NaturalNumber4
+     * @ensures toNaturalNumber4 = n
+     */
+    private static NaturalNumber4 toNaturalNumber4(NaturalNumber n) {
+        NaturalNumber4 result;
+        if (n instanceof NaturalNumber4) {
+            result = (NaturalNumber4) n;
+        } else {
+            result = new NaturalNumber4(n);
+        }
+        return result;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.createNewRep();
+        this.setFromInt(i);
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        this(s, false);
+    }
+
+    /**
+     * Constructor from {@code String} that, if {@code trusted}, skips checking
+     * (with assertion checking on) that {@code s} depicts a natural number;
+     * for callers that made {@code s} themselves, e.g., by {@code toString}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     * @param trusted
+     *            whether {@code s} is known to depict a natural number
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     */
+    public NaturalNumber4(String s, boolean trusted) {
+        assert s != null : "Violation of: s is not null";
+        assert trusted || s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.setFromDecimal(s);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.createNewRep();
+        this.copyFrom(n);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.limbs = localSource.limbs;
+        this.length = localSource.length;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        //Multiplies every limb by 10, carrying into the next one, with k as
+        //the first carry
+        this.ensureCapacity(this.length + 1);
+        long carry = k;
+        for (int i = 0; i < this.length; i++) {
+            long t = (long) this.limbs[i] * RADIX + carry;
+            this.limbs[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        if (carry != 0) {
+            this.limbs[this.length] = (int) carry;
+            this.length++;
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int divideBy10() {
+
+        //Divides every limb by 10 from the most significant one down,
+        //carrying each remainder into the next
+        long remainder = 0;
+        for (int i = this.length - 1; i >= 0; i--) {
+            long t = remainder * BASE + this.limbs[i];
+            this.limbs[i] = (int) (t / RADIX);
+            remainder = t % RADIX;
+        }
+        this.length = significantLength(this.limbs, this.length);
+
+        assert this.conventionHolds();
+
+        return (int) remainder;
+    }
+
+    @Override
+    public final boolean isZero() {
+        assert this.conventionHolds();
+        return this.length == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.ensureCapacity(2);
+        this.length = 0;
+        int rest = i;
+        while (rest > 0) {
+            this.limbs[this.length] = rest % BASE;
+            this.length++;
+            rest /= BASE;
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final boolean canConvertToInt() {
+        assert this.conventionHolds();
+        return this.length <= 1 || (this.length == 2
+                && (long) this.limbs[1] * BASE
+                        + this.limbs[0] <= Integer.MAX_VALUE);
+    }
+
+    @Override
+    public final int toInt() {
+        assert this.canConvertToInt() : ""
+                + "Violation of: this <= Integer.MAX_VALUE";
+
+        int result = 0;
+        for (int i = this.length - 1; i >= 0; i--) {
+            result = result * BASE + this.limbs[i];
+        }
+        return result;
+    }
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.setFromDecimal(s);
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 m = (NaturalNumber4) n;
+            this.setLimbs(Arrays.copyOf(m.limbs,
+                    Math.max(m.length, INITIAL_CAPACITY)), m.length);
+        } else {
+            this.setFromDecimal(n.toString());
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber4 m = toNaturalNumber4(n);
+        return compareLimbs(this.limbs, this.length, m.limbs, m.length);
+    }
+
+    @Override
+    public final void increment() {
+
+        //Turns trailing limbs of BASE - 1 into 0, then adds 1 to the next
+        this.ensureCapacity(this.length + 1);
+        int i = 0;
+        while (i < this.length && this.limbs[i] == BASE - 1) {
+            this.limbs[i] = 0;
+            i++;
+        }
+        if (i == this.length) {
+            this.limbs[i] = 1;
+            this.length++;
+        } else {
+            this.limbs[i]++;
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+
+        //Turns trailing 0 limbs into BASE - 1, then subtracts 1 from the next
+        int i = 0;
+        while (this.limbs[i] == 0) {
+            this.limbs[i] = BASE - 1;
+            i++;
+        }
+        this.limbs[i]--;
+        this.length = significantLength(this.limbs, this.length);
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber4 m = toNaturalNumber4(n);
+        int[] b = m.limbs;
+        int bLength = m.length;
+        int common = Math.min(this.length, bLength);
+        int longer = Math.max(this.length, bLength);
+        this.ensureCapacity(longer + 1);
+        int[] a = this.limbs;
+
+        //Adds the limbs both numbers have, then carries through the rest of
+        //the longer one
+        int carry = 0;
+        for (int i = 0; i < common; i++) {
+            int sum = a[i] + b[i] + carry;
+            carry = 0;
+            if (sum >= BASE) {
+                sum -= BASE;
+                carry = 1;
+            }
+            a[i] = sum;
+        }
+        for (int i = common; i < longer; i++) {
+            int sum = carry;
+            if (i < bLength) {
+                sum += b[i];
+            } else {
+                sum += a[i];
+            }
+            carry = 0;
+            if (sum >= BASE) {
+                sum -= BASE;
+                carry = 1;
+            }
+            a[i] = sum;
+        }
+        a[longer] = carry;
+        this.length = longer + carry;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber4 m = toNaturalNumber4(n);
+        assert compareLimbs(this.limbs, this.length, m.limbs,
+                m.length) >= 0 : "Violation of: this >= n";
+        int[] a = this.limbs;
+        int[] b = m.limbs;
+        int bLength = m.length;
+
+        //Subtracts the limbs of n, then borrows through the rest of this
+        int borrow = 0;
+        int i = 0;
+        while (i < bLength || borrow != 0) {
+            int difference = a[i] - borrow;
+            if (i < bLength) {
+                difference -= b[i];
+            }
+            borrow = 0;
+            if (difference < 0) {
+                difference += BASE;
+                borrow = 1;
+            }
+            a[i] = difference;
+            i++;
+        }
+        this.length = significantLength(a, this.length);
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber4 m = toNaturalNumber4(n);
+        if (this.length == 0 || m.length == 0) {
+            this.length = 0;
+        } else {
+            int[] p = product(Arrays.copyOf(this.limbs, this.length),
+                    Arrays.copyOf(m.limbs, m.length));
+            this.setLimbs(p, p.length);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+
+        NaturalNumber4 m = toNaturalNumber4(n);
+        NaturalNumber4 remainder = new NaturalNumber4();
+        if (compareLimbs(this.limbs, this.length, m.limbs, m.length) < 0) {
+
+            //Quotient is 0 and the remainder is all of this
+            remainder.transferFrom(this);
+        } else if (m.length == 1) {
+
+            //Divides by the single limb from the most significant limb down
+            long divisor = m.limbs[0];
+            long rest = 0;
+            for (int i = this.length - 1; i >= 0; i--) {
+                long t = rest * BASE + this.limbs[i];
+                this.limbs[i] = (int) (t / divisor);
+                rest = t % divisor;
+            }
+            this.length = significantLength(this.limbs, this.length);
+            remainder.setFromInt((int) rest);
+        } else {
+            int[] quotient = new int[this.length - m.length + 1];
+            int[] rest = divideLimbs(this.limbs, this.length, m.limbs,
+                    m.length, quotient);
+            remainder.setLimbs(rest, rest.length);
+            this.setLimbs(quotient, quotient.length);
+        }
+
+        assert this.conventionHolds();
+        assert remainder.conventionHolds();
+
+        return remainder;
+    }
+
+    @Override
+    public final void power(int p) {
+        assert p >= 0 : "Violation of: p >= 0";
+
+        //Squares this for each bit of p, multiplying the squares for the
+        //bits that are set into the result; the product and the next square
+        //for a bit are independent, so they may be computed side by side
+        int[] result = { 1 };
+        int[] square = Arrays.copyOf(this.limbs, this.length);
+        int rest = p;
+        while (rest > 0) {
+            boolean multiplying = rest % 2 == 1;
+            rest /= 2;
+            if (multiplying && rest > 0) {
+                int[][] next = products(new int[][] { result, square },
+                        new int[][] { square, square },
+                        Math.min(result.length,
+                                square.length) >= PARALLEL_THRESHOLD);
+                result = next[0];
+                square = next[1];
+            } else if (multiplying) {
+                result = product(result, square);
+            } else if (rest > 0) {
+                square = product(square, square);
+            }
+        }
+        this.setLimbs(result, result.length);
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final String toString() {
+        assert this.conventionHolds();
+
+        //Writes the top limb as is, then every other limb as nine digits,
+        //filling the characters in from the end
+        String result = "0";
+        if (this.length > 0) {
+            String top = Integer.toString(this.limbs[this.length - 1]);
+            char[] digits = new char[top.length()
+                    + (this.length - 1) * BASE_DIGITS];
+            top.getChars(0, top.length(), digits, 0);
+            int end = digits.length;
+            for (int i = 0; i < this.length - 1; i++) {
+                int limb = this.limbs[i];
+                for (int j = 0; j < BASE_DIGITS; j++) {
+                    end--;
+                    digits[end] = (char) ('0' + limb % RADIX);
+                    limb /= RADIX;
+                }
+            }
+            result = new String(digits);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,533 @@
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a {@code long} while its value fits in
+ * one, and as a {@code NaturalNumber4} once it does not, with implementations
+ * of primary methods and of the arithmetic secondary methods.
+ *
+ * <p>
+ * Most numbers fit in a {@code long}, and then every method is a few
+ * {@code long} operations, with no allocation. An operation whose result
+ * would overflow a {@code long} inflates {@code this} to a
+ * {@code NaturalNumber4}, and one whose result fits in a {@code long} again
+ * deflates it back, so the representation of a value is unique.
+ * </p>
+ *
+ * @convention <pre>
+ * 0 <= $this.small  and
+ * ($this.big = null  or
+ *  ($this.small = 0  and  $this.big > Long.MAX_VALUE))
+ * </pre>
+ * @correspondence <pre>
+ * this = [if $this.big = null then $this.small else $this.big]
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class NaturalNumber5 extends NaturalNumberSecondary {
+
+    /**
+     * Long.MAX_VALUE, as the largest value kept in $this.small; never
+     * changed.
+     */
+    private static final NaturalNumber4 LONG_MAX = new NaturalNumber4(
+            Long.toString(Long.MAX_VALUE), true);
+
+    /**
+     * Number of digits of every {@code String} that depicts a value that fits
+     * in a {@code long}; longer ones may too.
+     */
+    private static final int LONG_SAFE_DIGITS = 18;
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Value, while it fits in a {@code long}.
+     */
+    private long small;
+
+    /**
+     * Value, once it does not fit in a {@code long}; else null.
+     */
+    private NaturalNumber4 big;
+
+    /**
+     * Checks that the convention holds for the current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.small : "Violation of: 0 <= $this.small";
+        assert this.big == null || (this.small == 0
+                && this.big.compareTo(LONG_MAX) > 0) : ""
+                        + "Violation of: $this.big = null  or  ($this.small = 0"
+                        + "  and  $this.big > Long.MAX_VALUE)";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        //Creates zero, as a long
+        this.small = 0;
+        this.big = null;
+
+    }
+
+    /**
+     * Reports the value of {@code this} as a {@code NaturalNumber4}: $this.big
+     * itself if it is in use, else a new one.
+     *
+     * @return the value
+     * @aliases reference $this.big, if it is not null
+     * @ensures bigValue = this
+     */
+    private NaturalNumber4 bigValue() {
+        NaturalNumber4 result = this.big;
+        if (result == null) {
+            result = new NaturalNumber4(Long.toString(this.small), true);
+        }
+        return result;
+    }
+
+    /**
+     * Sets {@code this} to the value of {@code n}, deflating it to a
+     * {@code long} if it fits in one.
+     *
+     * @param n
+     *            the value
+     * @aliases reference n, if it does not fit in a long
+     * @replaces $this.small, $this.big
+     * @ensures this = n
+     */
+    private void setBig(NaturalNumber4 n) {
+        if (n.compareTo(LONG_MAX) <= 0) {
+            this.small = Long.parseLong(n.toString());
+            this.big = null;
+        } else {
+            this.small = 0;
+            this.big = n;
+        }
+    }
+
+    /**
+     * Reports {@code n} as a {@code NaturalNumber5}: {@code n} itself if it is
+     * one, else a copy.
+     *
+     * @param n
+     *            the number
+     * @return a {@code NaturalNumber5} equal to {@code n}
+     * @aliases reference n, if n is a NaturalNumber5
+     * @ensures toNaturalNumber5 = n
+     */
+    private static NaturalNumber5 toNaturalNumber5(NaturalNumber n) {
+        NaturalNumber5 result;
+        if (n instanceof NaturalNumber5) {
+            result = (NaturalNumber5) n;
+        } else {
+            result = new NaturalNumber5(n);
+        }
+        return result;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber5() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber5(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.small = i;
+        this.big = null;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber5(String s) {
+        this(s, false);
+    }
+
+    /**
+     * Constructor from {@code String} that, if {@code trusted}, skips checking
+     * (with assertion checking on) that {@code s} depicts a natural number.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     * @param trusted
+     *            whether {@code s} is known to depict a natural number
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     */
+    public NaturalNumber5(String s, boolean trusted) {
+        assert s != null : "Violation of: s is not null";
+        assert trusted || s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        if (s.length() <= LONG_SAFE_DIGITS) {
+            this.small = Long.parseLong(s);
+            this.big = null;
+        } else {
+            this.setBig(new NaturalNumber4(s, true));
+        }
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber5(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.createNewRep();
+        this.copyFrom(n);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber5 : ""
+                + "Violation of: source is of dynamic type NaturalNumber5";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber5 localSource = (NaturalNumber5) source;
+        this.small = localSource.small;
+        this.big = localSource.big;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        if (this.big == null && this.small <= (Long.MAX_VALUE - k) / RADIX) {
+            this.small = this.small * RADIX + k;
+        } else {
+            NaturalNumber4 n = this.bigValue();
+            n.multiplyBy10(k);
+            this.setBig(n);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int divideBy10() {
+        int k;
+        if (this.big == null) {
+            k = (int) (this.small % RADIX);
+            this.small /= RADIX;
+        } else {
+            k = this.big.divideBy10();
+            this.setBig(this.big);
+        }
+
+        assert this.conventionHolds();
+
+        return k;
+    }
+
+    @Override
+    public final boolean isZero() {
+        assert this.conventionHolds();
+        return this.big == null && this.small == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.small = i;
+        this.big = null;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final boolean canConvertToInt() {
+        assert this.conventionHolds();
+        return this.big == null && this.small <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public final int toInt() {
+        assert this.canConvertToInt() : ""
+                + "Violation of: this <= Integer.MAX_VALUE";
+        return (int) this.small;
+    }
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        if (s.length() <= LONG_SAFE_DIGITS) {
+            this.small = Long.parseLong(s);
+            this.big = null;
+        } else {
+            this.setBig(new NaturalNumber4(s, true));
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n instanceof NaturalNumber5) {
+            NaturalNumber5 m = (NaturalNumber5) n;
+            this.small = m.small;
+            this.big = null;
+            if (m.big != null) {
+                this.big = new NaturalNumber4(m.big);
+            }
+        } else {
+            this.setFromString(n.toString());
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        //Values that need a NaturalNumber4 are larger than those that do not
+        NaturalNumber5 m = toNaturalNumber5(n);
+        int result;
+        if (this.big == null && m.big == null) {
+            result = Long.compare(this.small, m.small);
+        } else if (this.big == null) {
+            result = -1;
+        } else if (m.big == null) {
+            result = 1;
+        } else {
+            result = this.big.compareTo(m.big);
+        }
+        return result;
+    }
+
+    @Override
+    public final void increment() {
+        if (this.big == null && this.small < Long.MAX_VALUE) {
+            this.small++;
+        } else {
+            NaturalNumber4 n = this.bigValue();
+            n.increment();
+            this.setBig(n);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+
+        if (this.big == null) {
+            this.small--;
+        } else {
+            this.big.decrement();
+            this.setBig(this.big);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber5 m = toNaturalNumber5(n);
+        if (this.big == null && m.big == null
+                && this.small <= Long.MAX_VALUE - m.small) {
+            this.small += m.small;
+        } else {
+            NaturalNumber4 sum = this.bigValue();
+            sum.add(m.bigValue());
+            this.setBig(sum);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber5 m = toNaturalNumber5(n);
+        assert this.compareTo(m) >= 0 : "Violation of: this >= n";
+        if (this.big == null) {
+            this.small -= m.small;
+        } else {
+            NaturalNumber4 difference = this.big;
+            difference.subtract(m.bigValue());
+            this.setBig(difference);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber5 m = toNaturalNumber5(n);
+        if (this.big == null && m.big == null && (this.small == 0
+                || m.small <= Long.MAX_VALUE / this.small)) {
+            this.small *= m.small;
+        } else {
+            NaturalNumber4 product = this.bigValue();
+            product.multiply(m.bigValue());
+            this.setBig(product);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+
+        NaturalNumber5 m = toNaturalNumber5(n);
+        NaturalNumber5 remainder = new NaturalNumber5();
+        if (this.big == null && m.big == null) {
+            remainder.small = this.small % m.small;
+            this.small /= m.small;
+        } else if (this.big == null) {
+
+            //n does not fit in a long, so it is larger than this
+            remainder.small = this.small;
+            this.small = 0;
+        } else {
+            NaturalNumber4 quotient = this.big;
+            NaturalNumber rest = quotient.divide(m.bigValue());
+            remainder.setBig((NaturalNumber4) rest);
+            this.setBig(quotient);
+        }
+
+        assert this.conventionHolds();
+        assert remainder.conventionHolds();
+
+        return remainder;
+    }
+
+    @Override
+    public final void power(int p) {
+        assert p >= 0 : "Violation of: p >= 0";
+
+        //Squares and multiplies in longs, keeping this^p = result *
+        //square^rest, for as long as nothing overflows; then finishes with a
+        //NaturalNumber4
+        long result = 1;
+        long square = this.small;
+        int rest = p;
+        boolean fits = this.big == null;
+        while (fits && rest > 0) {
+            if (rest % 2 == 1) {
+                fits = square == 0 || result <= Long.MAX_VALUE / square;
+                if (fits) {
+                    result *= square;
+                    rest--;
+                }
+            } else {
+                fits = square <= Long.MAX_VALUE / Math.max(square, 1);
+                if (fits) {
+                    square *= square;
+                    rest /= 2;
+                }
+            }
+        }
+        if (fits) {
+            this.small = result;
+        } else {
+            //Here this^p = result * square^rest, as a NaturalNumber4
+            NaturalNumber4 n;
+            if (this.big != null) {
+                n = this.big;
+            } else {
+                n = new NaturalNumber4(Long.toString(square), true);
+            }
+            n.power(rest);
+            n.multiply(new NaturalNumber4(Long.toString(result), true));
+            this.setBig(n);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final String toString() {
+        assert this.conventionHolds();
+
+        String result;
+        if (this.big == null) {
+            result = Long.toString(this.small);
+        } else {
+            result = this.big.toString();
+        }
+        return result;
+    }
+
+}
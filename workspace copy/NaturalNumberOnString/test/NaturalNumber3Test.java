@@ -1,3 +1,7 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
 import components.naturalnumber.NaturalNumber;
 import components.naturalnumber.NaturalNumber1L;
 
@@ -86,4 +90,20 @@ public class NaturalNumber3Test extends NaturalNumberTest {
         return n2;
     }
 
+    /**
+     * test the trusted {@code String} constructor, and the constructor from
+     * another {@code NaturalNumber3}, which shares its representation.
+     */
+    @Test
+    public final void testTrustedAndCopyConstructors() {
+        NaturalNumber n = new NaturalNumber3("12345678901234567890", true);
+        NaturalNumber m = new NaturalNumber3(n);
+        assertEquals("12345678901234567890", m.toString());
+        m.multiplyBy10(1);
+        assertEquals("12345678901234567890", n.toString());
+        assertEquals("123456789012345678901", m.toString());
+        assertEquals("0", new NaturalNumber3("0", true).toString());
+        assertEquals("0", new NaturalNumber3(new NaturalNumber3()).toString());
+    }
+
 }
@@ -0,0 +1,106 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber3a}.
+ */
+public class NaturalNumber3aTest extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        return new NaturalNumber3a();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber3a(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber3a(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber3a(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * test multiplyBy10 and divideBy10 past the initial buffer length.
+     */
+    @Test
+    public final void testMultiplyBy10DivideBy10ManyDigits() {
+        final int count = 100;
+        NaturalNumber n = this.constructorTest();
+        n.multiplyBy10(0);
+        assertTrue(n.isZero());
+        for (int i = 1; i <= count; i++) {
+            n.multiplyBy10(i % NaturalNumber.RADIX);
+        }
+        for (int i = count; i >= 1; i--) {
+            assertEquals(i % NaturalNumber.RADIX, n.divideBy10());
+        }
+        assertTrue(n.isZero());
+        assertEquals(0, n.divideBy10());
+    }
+
+    /**
+     * test that toString reflects each change made after an earlier call.
+     */
+    @Test
+    public final void testToStringAfterChanges() {
+        NaturalNumber n = this.constructorTest("12");
+        assertEquals("12", n.toString());
+        n.multiplyBy10(3);
+        assertEquals("123", n.toString());
+        n.divideBy10();
+        n.divideBy10();
+        assertEquals("1", n.toString());
+        n.divideBy10();
+        assertEquals("0", n.toString());
+        n.increment();
+        assertEquals("1", n.toString());
+    }
+
+    /**
+     * test transferFrom with a cached depiction.
+     */
+    @Test
+    public final void testTransferFromKeepsDepiction() {
+        NaturalNumber n = this.constructorTest("98765");
+        NaturalNumber m = this.constructorTest();
+        assertEquals("98765", n.toString());
+        m.transferFrom(n);
+        assertEquals("98765", m.toString());
+        assertEquals("0", n.toString());
+        m.multiplyBy10(4);
+        assertEquals("987654", m.toString());
+    }
+
+}
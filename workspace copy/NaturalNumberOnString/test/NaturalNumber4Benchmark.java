@@ -0,0 +1,102 @@
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code add}, {@code multiply} and {@code divide} on numbers of
+ * {@code DIGITS} digits with a {@code NaturalNumber3} and with a
+ * {@code NaturalNumber4}.
+ *
+ * <p>
+ * Run with assertion checking off.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class NaturalNumber4Benchmark {
+
+    /**
+     * Number of digits of each operand.
+     */
+    private static final int DIGITS = 10_000;
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 3;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private NaturalNumber4Benchmark() {
+    }
+
+    /**
+     * Makes the decimal depiction of a pseudo-random number.
+     *
+     * @param random
+     *            source of pseudo-random digits
+     * @param digits
+     *            number of digits
+     * @return the depiction, with no leading zero
+     */
+    private static String randomDigits(Random random, int digits) {
+        StringBuilder s = new StringBuilder();
+        s.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            s.append((char) ('0' + random.nextInt(10)));
+        }
+        return s.toString();
+    }
+
+    /**
+     * Computes (x + y) * x / y with {@code x} and {@code y} of the same type.
+     *
+     * @param x
+     *            the first operand
+     * @param y
+     *            the second operand
+     * @return the number of digits of the result, to keep the JIT honest
+     */
+    private static int compute(NaturalNumber x, NaturalNumber y) {
+        NaturalNumber r = x.newInstance();
+        r.copyFrom(x);
+        r.add(y);
+        r.multiply(x);
+        r.divide(y);
+        return r.toString().length();
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        final long seed = 42;
+        Random random = new Random(seed);
+        String x = randomDigits(random, DIGITS);
+        String y = randomDigits(random, DIGITS);
+
+        long check = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            check += compute(new NaturalNumber3(x), new NaturalNumber3(y));
+            long stringMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            check -= compute(new NaturalNumber4(x), new NaturalNumber4(y));
+            long limbMillis = (System.nanoTime() - start) / 1_000_000;
+            out.println("round " + round + ": NaturalNumber3 " + stringMillis
+                    + " ms;  NaturalNumber4 " + limbMillis + " ms");
+        }
+        out.println("(checksum, should be 0: " + check + ")");
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,102 @@
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code NaturalNumber4.multiply} on balanced factors of sizes on both
+ * sides of its Karatsuba and Toom-3 thresholds, and {@code power} on a large
+ * result; re-run it after changing the thresholds to see whether they still
+ * fall where the faster method starts to win.
+ *
+ * <p>
+ * Run with assertion checking off.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class NaturalNumber4MultiplyBenchmark {
+
+    /**
+     * Sizes of the factors, in limbs of nine digits.
+     */
+    private static final int[] LIMBS = { 16, 32, 48, 64, 96, 128, 192, 256,
+            384, 512, 1024, 4096, 16384 };
+
+    /**
+     * Number of limb products timed per size, divided among the repetitions.
+     */
+    private static final double WORK = 2e8;
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 2;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private NaturalNumber4MultiplyBenchmark() {
+    }
+
+    /**
+     * Makes the decimal depiction of a pseudo-random number.
+     *
+     * @param random
+     *            source of pseudo-random digits
+     * @param digits
+     *            number of digits
+     * @return the depiction, with no leading zero
+     */
+    private static String randomDigits(Random random, int digits) {
+        StringBuilder s = new StringBuilder();
+        s.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            s.append((char) ('0' + random.nextInt(10)));
+        }
+        return s.toString();
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        final long seed = 42;
+        final int digitsPerLimb = 9;
+        final int base = 3;
+        final int exponent = 1_000_000;
+        Random random = new Random(seed);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            out.println("round " + round + ":");
+            for (int n : LIMBS) {
+                NaturalNumber4 x = new NaturalNumber4(
+                        randomDigits(random, digitsPerLimb * n));
+                NaturalNumber4 y = new NaturalNumber4(
+                        randomDigits(random, digitsPerLimb * n));
+                int repetitions = (int) Math.max(1, WORK / n / n);
+                long start = System.nanoTime();
+                for (int i = 0; i < repetitions; i++) {
+                    NaturalNumber4 z = new NaturalNumber4(x);
+                    z.multiply(y);
+                }
+                long micros = (System.nanoTime() - start) / 1_000
+                        / repetitions;
+                out.println("  " + n + " limbs: " + micros + " us");
+            }
+            NaturalNumber4 p = new NaturalNumber4(base);
+            long start = System.nanoTime();
+            p.power(exponent);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            out.println("  " + base + "^" + exponent + ": " + millis + " ms");
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,133 @@
+import java.util.concurrent.ForkJoinPool;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times a large power and a large factorial with {@code NaturalNumber4} in
+ * {@code ForkJoinPool}s of 1, 2, 4 and 8 threads, to show how its parallel
+ * multiplication scales with the number of cores.
+ *
+ * <p>
+ * Run with assertion checking off, on a machine with at least 8 cores for the
+ * last column to mean anything.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class NaturalNumber4ParallelBenchmark {
+
+    /**
+     * Numbers of threads compared.
+     */
+    private static final int[] THREADS = { 1, 2, 4, 8 };
+
+    /**
+     * Base of the power.
+     */
+    private static final int BASE = 3;
+
+    /**
+     * Exponent of the power.
+     */
+    private static final int EXPONENT = 3_000_000;
+
+    /**
+     * Number whose factorial is computed.
+     */
+    private static final int FACTORIAL = 100_000;
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 2;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private NaturalNumber4ParallelBenchmark() {
+    }
+
+    /**
+     * Computes the product of the integers in [low, high), splitting the range
+     * in halves so that the large multiplications are balanced.
+     *
+     * @param low
+     *            the smallest factor
+     * @param high
+     *            one more than the largest factor
+     * @return the product
+     * @requires 0 < low < high
+     */
+    private static NaturalNumber4 rangeProduct(int low, int high) {
+        NaturalNumber4 result;
+        if (high - low == 1) {
+            result = new NaturalNumber4(low);
+        } else {
+            int middle = (low + high) >>> 1;
+            result = rangeProduct(low, middle);
+            result.multiply(rangeProduct(middle, high));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the workloads in a pool of {@code threads} threads.
+     *
+     * @param threads
+     *            the number of threads
+     * @param out
+     *            the output stream
+     * @return a value depending on the results, to keep the JIT honest
+     * @updates out.content
+     */
+    private static long time(int threads, SimpleWriter out) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long check = 0;
+        try {
+            long start = System.nanoTime();
+            NaturalNumber4 power = pool.submit(() -> {
+                NaturalNumber4 n = new NaturalNumber4(BASE);
+                n.power(EXPONENT);
+                return n;
+            }).join();
+            long powerMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            NaturalNumber4 factorial = pool
+                    .submit(() -> rangeProduct(1, FACTORIAL + 1)).join();
+            long factorialMillis = (System.nanoTime() - start) / 1_000_000;
+            check = power.divideBy10() + factorial.divideBy10();
+            out.println("  " + threads + " threads: " + BASE + "^" + EXPONENT
+                    + " " + powerMillis + " ms;  " + FACTORIAL + "! "
+                    + factorialMillis + " ms");
+        } finally {
+            pool.shutdown();
+        }
+        return check;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        out.println("available processors: "
+                + Runtime.getRuntime().availableProcessors());
+
+        long check = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            out.println("round " + round + ":");
+            for (int threads : THREADS) {
+                check += time(threads, out);
+            }
+        }
+        out.println("(checksum: " + check + ")");
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,322 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber4}.
+ */
+public class NaturalNumber4Test extends NaturalNumberTest {
+
+    /**
+     * Seed for the pseudo-random numbers compared with the reference.
+     */
+    private static final long SEED = 2024;
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        return new NaturalNumber4();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber4(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber4(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber4(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * Makes the decimal depiction of a pseudo-random number.
+     *
+     * @param random
+     *            source of pseudo-random digits
+     * @param digits
+     *            number of digits
+     * @return the depiction, with no leading zero
+     * @requires digits > 0
+     */
+    private static String randomDigits(Random random, int digits) {
+        StringBuilder s = new StringBuilder();
+        s.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            s.append((char) ('0' + random.nextInt(10)));
+        }
+        return s.toString();
+    }
+
+    /**
+     * test of constructor from a {@code NaturalNumber} of another type, and of
+     * toString, with zero limbs inside the number.
+     */
+    @Test
+    public final void testConstructorAndToStringInnerZeroLimbs() {
+        String s = "1000000000000000000000000005";
+        NaturalNumber n = this.constructorTest(this.constructorRef(s));
+        assertEquals(s, n.toString());
+        assertEquals("0", this.constructorTest("0").toString());
+    }
+
+    /**
+     * test multiplyBy10 and divideBy10 across limb boundaries.
+     */
+    @Test
+    public final void testMultiplyBy10DivideBy10ManyDigits() {
+        String s = "98765432109876543210123456789";
+        NaturalNumber n = this.constructorTest();
+        for (int i = 0; i < s.length(); i++) {
+            n.multiplyBy10(s.charAt(i) - '0');
+        }
+        assertEquals(s, n.toString());
+        for (int i = s.length() - 1; i >= 0; i--) {
+            assertEquals(s.charAt(i) - '0', n.divideBy10());
+        }
+        assertTrue(n.isZero());
+    }
+
+    /**
+     * test canConvertToInt and toInt around Integer.MAX_VALUE.
+     */
+    @Test
+    public final void testToIntBoundary() {
+        NaturalNumber n = this.constructorTest(Integer.MAX_VALUE);
+        assertTrue(n.canConvertToInt());
+        assertEquals(Integer.MAX_VALUE, n.toInt());
+        n.increment();
+        assertEquals(false, n.canConvertToInt());
+    }
+
+    /**
+     * test increment and decrement carrying through whole limbs.
+     */
+    @Test
+    public final void testIncrementDecrementCarry() {
+        NaturalNumber n = this.constructorTest("999999999999999999");
+        n.increment();
+        assertEquals("1000000000000000000", n.toString());
+        n.decrement();
+        assertEquals("999999999999999999", n.toString());
+    }
+
+    /**
+     * test add, subtract, multiply, divide and compareTo against the
+     * reference implementation on pseudo-random numbers of many sizes.
+     */
+    @Test
+    public final void testArithmeticMatchesReference() {
+        final int trials = 200;
+        final int maxDigits = 120;
+        Random random = new Random(SEED);
+        for (int trial = 0; trial < trials; trial++) {
+            String x = randomDigits(random, 1 + random.nextInt(maxDigits));
+            String y = randomDigits(random, 1 + random.nextInt(maxDigits));
+            NaturalNumber xRef = this.constructorRef(x);
+            NaturalNumber yRef = this.constructorRef(y);
+            NaturalNumber xTest = this.constructorTest(x);
+            NaturalNumber yTest = this.constructorTest(y);
+            assertEquals(Integer.signum(xRef.compareTo(yRef)),
+                    Integer.signum(xTest.compareTo(yTest)));
+
+            NaturalNumber sumRef = this.constructorRef(xRef);
+            sumRef.add(yRef);
+            NaturalNumber sumTest = this.constructorTest(xTest);
+            sumTest.add(yTest);
+            assertEquals(sumRef.toString(), sumTest.toString());
+
+            sumTest.subtract(yTest);
+            assertEquals(x, sumTest.toString());
+
+            NaturalNumber productRef = this.constructorRef(xRef);
+            productRef.multiply(yRef);
+            NaturalNumber productTest = this.constructorTest(xTest);
+            productTest.multiply(yTest);
+            assertEquals(productRef.toString(), productTest.toString());
+
+            productRef.add(yRef);
+            productRef.decrement();
+            productTest.add(yTest);
+            productTest.decrement();
+            NaturalNumber remainderRef = productRef.divide(xRef);
+            NaturalNumber remainderTest = productTest.divide(xTest);
+            assertEquals(productRef.toString(), productTest.toString());
+            assertEquals(remainderRef.toString(), remainderTest.toString());
+        }
+    }
+
+    /**
+     * test divide with a divisor whose top limb is small and a quotient limb
+     * that is first estimated too large.
+     */
+    @Test
+    public final void testDivideHardQuotientLimbs() {
+        String[][] cases = {
+                { "999999999999999999999999999999999999",
+                        "1000000000000000001" },
+                { "1000000000000000000000000000000000000",
+                        "999999999999999999" },
+                { "4294967296000000000000000000000000000000",
+                        "4294967297000000001" },
+                { "123456789", "123456789123456789" },
+                { "500000000000000000000000000", "500000000000000000" }, };
+        for (String[] c : cases) {
+            NaturalNumber qRef = this.constructorRef(c[0]);
+            NaturalNumber rRef = qRef.divide(this.constructorRef(c[1]));
+            NaturalNumber qTest = this.constructorTest(c[0]);
+            NaturalNumber rTest = qTest.divide(this.constructorTest(c[1]));
+            assertEquals(qRef.toString(), qTest.toString());
+            assertEquals(rRef.toString(), rTest.toString());
+        }
+    }
+
+    /**
+     * test power against the reference implementation.
+     */
+    @Test
+    public final void testPowerMatchesReference() {
+        final int[] exponents = { 0, 1, 2, 7, 64, 200 };
+        for (int p : exponents) {
+            NaturalNumber nRef = this.constructorRef("123456789012");
+            NaturalNumber nTest = this.constructorTest("123456789012");
+            nRef.power(p);
+            nTest.power(p);
+            assertEquals(nRef.toString(), nTest.toString());
+        }
+        NaturalNumber zero = this.constructorTest();
+        zero.power(0);
+        assertEquals("1", zero.toString());
+    }
+
+    /**
+     * test multiply against the reference implementation with factors long
+     * enough for Karatsuba's method and Toom-3, balanced and not.
+     */
+    @Test
+    public final void testMultiplyLargeMatchesReference() {
+        final int[][] digits = { { 500, 500 }, { 900, 700 }, { 3000, 2500 },
+                { 6000, 6000 }, { 7000, 1000 }, { 450, 9000 } };
+        Random random = new Random(SEED);
+        for (int[] d : digits) {
+            String x = randomDigits(random, d[0]);
+            String y = randomDigits(random, d[1]);
+            NaturalNumber nRef = this.constructorRef(x);
+            NaturalNumber nTest = this.constructorTest(x);
+            nRef.multiply(this.constructorRef(y));
+            nTest.multiply(this.constructorTest(y));
+            assertEquals(nRef.toString(), nTest.toString());
+        }
+    }
+
+    /**
+     * test multiply with large factors made mostly of zero and of maximal
+     * limbs, whose pieces are empty or carry the most.
+     */
+    @Test
+    public final void testMultiplyLargeExtremeLimbs() {
+        final int digits = 4000;
+        StringBuilder nines = new StringBuilder();
+        StringBuilder sparse = new StringBuilder("1");
+        for (int i = 0; i < digits; i++) {
+            nines.append('9');
+            sparse.append('0');
+        }
+        sparse.setCharAt(digits / 2, '7');
+        String[] factors = { nines.toString(), sparse.toString() };
+        for (String x : factors) {
+            for (String y : factors) {
+                NaturalNumber nRef = this.constructorRef(x);
+                NaturalNumber nTest = this.constructorTest(x);
+                nRef.multiply(this.constructorRef(y));
+                nTest.multiply(this.constructorTest(y));
+                assertEquals(nRef.toString(), nTest.toString());
+            }
+        }
+    }
+
+    /**
+     * test multiply and power against the reference implementation with
+     * numbers long enough for their products to be computed in parallel, both
+     * from this thread and from inside a {@code ForkJoinPool}.
+     */
+    @Test
+    public final void testParallelMultiplyAndPowerMatchReference() {
+        final int digits = 12_000;
+        final int base = 7;
+        final int exponent = 30_001;
+        Random random = new Random(SEED);
+        String x = randomDigits(random, digits);
+        String y = randomDigits(random, digits);
+        NaturalNumber productRef = this.constructorRef(x);
+        productRef.multiply(this.constructorRef(y));
+        NaturalNumber powerRef = this.constructorRef(base);
+        powerRef.power(exponent);
+
+        NaturalNumber productTest = this.constructorTest(x);
+        productTest.multiply(this.constructorTest(y));
+        assertEquals(productRef.toString(), productTest.toString());
+        NaturalNumber powerTest = this.constructorTest(base);
+        powerTest.power(exponent);
+        assertEquals(powerRef.toString(), powerTest.toString());
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            NaturalNumber pooled = pool.submit(() -> {
+                NaturalNumber n = this.constructorTest(x);
+                n.multiply(this.constructorTest(y));
+                return n;
+            }).join();
+            assertEquals(productRef.toString(), pooled.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * test the trusted {@code String} constructor and toString on a number
+     * with many limbs, some of them with leading zero digits.
+     */
+    @Test
+    public final void testTrustedConstructorRoundTrip() {
+        StringBuilder s = new StringBuilder("7");
+        for (int i = 0; i < 1000; i++) {
+            s.append(i % 7 * 1000 + i);
+        }
+        NaturalNumber n = new NaturalNumber4(s.toString(), true);
+        assertEquals(s.toString(), n.toString());
+        assertEquals(this.constructorRef(s.toString()),
+                new NaturalNumber4(n.toString(), true));
+    }
+
+}
@@ -0,0 +1,88 @@
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times a loop of {@code setFromInt}, {@code multiply}, {@code add} and
+ * {@code divide} on small values, which all fit in a {@code long}, with a
+ * {@code NaturalNumber4} and with a {@code NaturalNumber5}.
+ *
+ * <p>
+ * Run with assertion checking off.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class NaturalNumber5Benchmark {
+
+    /**
+     * Number of loop iterations per round.
+     */
+    private static final int COUNT = 2_000_000;
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private NaturalNumber5Benchmark() {
+    }
+
+    /**
+     * For i from 1 to {@code COUNT}, sets {@code t} to i * i, adds it to
+     * {@code acc}, and divides {@code t} by {@code acc}.
+     *
+     * @param acc
+     *            the accumulator, of the same type as t
+     * @param t
+     *            the scratch number
+     * @param u
+     *            another scratch number, of the same type as t
+     * @return a value depending on the results, to keep the JIT honest
+     */
+    private static long compute(NaturalNumber acc, NaturalNumber t,
+            NaturalNumber u) {
+        long check = 0;
+        for (int i = 1; i <= COUNT; i++) {
+            t.setFromInt(i);
+            u.setFromInt(i);
+            t.multiply(u);
+            acc.add(t);
+            NaturalNumber r = t.divide(acc);
+            check += r.toInt();
+        }
+        return check + acc.toString().length();
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        long check = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            check += compute(new NaturalNumber4(), new NaturalNumber4(),
+                    new NaturalNumber4());
+            long limbMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            check -= compute(new NaturalNumber5(), new NaturalNumber5(),
+                    new NaturalNumber5());
+            long longMillis = (System.nanoTime() - start) / 1_000_000;
+            out.println("round " + round + ": NaturalNumber4 " + limbMillis
+                    + " ms;  NaturalNumber5 " + longMillis + " ms");
+        }
+        out.println("(checksum, should be 0: " + check + ")");
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,177 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber5}.
+ */
+public class NaturalNumber5Test extends NaturalNumberTest {
+
+    /**
+     * Long.MAX_VALUE, the largest value kept in a long.
+     */
+    private static final String LONG_MAX = Long.toString(Long.MAX_VALUE);
+
+    /**
+     * Long.MAX_VALUE + 1, the smallest value kept in a NaturalNumber4.
+     */
+    private static final String LONG_MAX_PLUS_ONE = BigInteger
+            .valueOf(Long.MAX_VALUE).add(BigInteger.ONE).toString();
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+        return new NaturalNumber5();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber5(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber5(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber5(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * test increment and decrement across Long.MAX_VALUE.
+     */
+    @Test
+    public final void testIncrementDecrementAcrossLongMax() {
+        NaturalNumber n = this.constructorTest(LONG_MAX);
+        n.increment();
+        assertEquals(LONG_MAX_PLUS_ONE, n.toString());
+        n.decrement();
+        assertEquals(LONG_MAX, n.toString());
+        assertEquals(this.constructorTest(LONG_MAX), n);
+    }
+
+    /**
+     * test multiplyBy10 and divideBy10 across Long.MAX_VALUE.
+     */
+    @Test
+    public final void testMultiplyBy10DivideBy10AcrossLongMax() {
+        NaturalNumber n = this.constructorTest(LONG_MAX);
+        n.multiplyBy10(9);
+        assertEquals(LONG_MAX + "9", n.toString());
+        assertEquals(9, n.divideBy10());
+        assertEquals(LONG_MAX, n.toString());
+        assertTrue(n.compareTo(this.constructorTest(LONG_MAX_PLUS_ONE)) < 0);
+    }
+
+    /**
+     * test compareTo between values kept in a long and values that are not.
+     */
+    @Test
+    public final void testCompareToSmallAndBig() {
+        NaturalNumber small = this.constructorTest(LONG_MAX);
+        NaturalNumber big = this.constructorTest(LONG_MAX_PLUS_ONE);
+        assertTrue(small.compareTo(big) < 0);
+        assertTrue(big.compareTo(small) > 0);
+        assertEquals(0, big.compareTo(this.constructorRef(LONG_MAX_PLUS_ONE)));
+    }
+
+    /**
+     * test add, subtract, multiply, divide and power against the reference
+     * implementation on pseudo-random numbers around Long.MAX_VALUE.
+     */
+    @Test
+    public final void testArithmeticAroundLongMaxMatchesReference() {
+        final long seed = 63;
+        final int trials = 300;
+        final int maxDigits = 25;
+        final int maxExponent = 5;
+        Random random = new Random(seed);
+        for (int trial = 0; trial < trials; trial++) {
+            String x = new BigInteger(1 + random.nextInt(maxDigits * 4),
+                    random).add(BigInteger.ONE).toString();
+            String y = new BigInteger(1 + random.nextInt(maxDigits * 4),
+                    random).add(BigInteger.ONE).toString();
+            NaturalNumber xRef = this.constructorRef(x);
+            NaturalNumber yRef = this.constructorRef(y);
+            NaturalNumber xTest = this.constructorTest(x);
+            NaturalNumber yTest = this.constructorTest(y);
+            assertEquals(Integer.signum(xRef.compareTo(yRef)),
+                    Integer.signum(xTest.compareTo(yTest)));
+
+            NaturalNumber sumRef = this.constructorRef(xRef);
+            sumRef.add(yRef);
+            NaturalNumber sumTest = this.constructorTest(xTest);
+            sumTest.add(yTest);
+            assertEquals(sumRef.toString(), sumTest.toString());
+            sumTest.subtract(yTest);
+            assertEquals(x, sumTest.toString());
+
+            NaturalNumber productRef = this.constructorRef(xRef);
+            productRef.multiply(yRef);
+            NaturalNumber productTest = this.constructorTest(xTest);
+            productTest.multiply(yTest);
+            assertEquals(productRef.toString(), productTest.toString());
+
+            productRef.add(xRef);
+            productTest.add(xTest);
+            NaturalNumber remainderRef = productRef.divide(yRef);
+            NaturalNumber remainderTest = productTest.divide(yTest);
+            assertEquals(productRef.toString(), productTest.toString());
+            assertEquals(remainderRef.toString(), remainderTest.toString());
+
+            int p = random.nextInt(maxExponent + 1);
+            xRef.power(p);
+            xTest.power(p);
+            assertEquals(xRef.toString(), xTest.toString());
+        }
+    }
+
+    /**
+     * test power whose intermediate square overflows a long after part of the
+     * result has been computed in longs.
+     */
+    @Test
+    public final void testPowerOverflowingPartway() {
+        final String[] bases = { "0", "1", "2", "3", "10", "3037000499",
+                "3037000500" };
+        final int[] exponents = { 0, 1, 2, 3, 7, 62, 63, 64, 100 };
+        for (String b : bases) {
+            for (int p : exponents) {
+                NaturalNumber nRef = this.constructorRef(b);
+                NaturalNumber nTest = this.constructorTest(b);
+                nRef.power(p);
+                nTest.power(p);
+                assertEquals(nRef.toString(), nTest.toString());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that wraps another {@code SortingMachine}
+ * implementation and records, in a {@code SortingMachineStats}, the comparator
+ * calls it makes and the time it spends in {@code add},
+ * {@code changeToExtractionMode} and {@code removeFirst}.
+ *
+ * <p>
+ * The wrapped machine is built by a factory from a counting comparator, so any
+ * implementation with a constructor from a {@code Comparator} can be measured,
+ * for example {@code new InstrumentedSortingMachine<>(order,
+ * SortingMachine5a::new)} or {@code new InstrumentedSortingMachine<>(order,
+ * SortingMachine2::new)}. When the wrapped machine is a
+ * {@code SortingMachine5a}, its swaps and sift-downs are recorded too.
+ * </p>
+ *
+ * <p>
+ * With assertion checking on, the comparator calls made by the wrapped
+ * machine's own convention checks are counted as well, so measure with it
+ * off.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * [$this.machine was built by $this.factory from $this.countingOrder]  and
+ * $this.countingOrder.base = $this.machineOrder  and
+ * $this.countingOrder.stats = $this.stats  and
+ * [if $this.machine is a SortingMachine5a, it records in $this.stats]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.machine.insertion_mode, $this.machineOrder,
+ *         $this.machine.contents)
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class InstrumentedSortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /**
+     * {@code Comparator} that counts its calls and passes them on.
+     *
+     * @param <T>
+     *            type of the entries compared
+     */
+    private static final class CountingOrder<T> implements Comparator<T> {
+
+        /**
+         * Comparator doing the actual comparisons.
+         */
+        private final Comparator<T> base;
+
+        /**
+         * Where calls are counted.
+         */
+        private SortingMachineStats stats;
+
+        /**
+         * Constructor.
+         *
+         * @param base
+         *            the comparator doing the actual comparisons
+         * @param stats
+         *            where calls are counted
+         */
+        private CountingOrder(Comparator<T> base, SortingMachineStats stats) {
+            this.base = base;
+            this.stats = stats;
+        }
+
+        @Override
+        public int compare(T x, T y) {
+            this.stats.countComparison();
+            return this.base.compare(x, y);
+        }
+
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Factory for the wrapped machine.
+     */
+    private Function<Comparator<T>, SortingMachine<T>> factory;
+
+    /**
+     * Statistics.
+     */
+    private SortingMachineStats stats;
+
+    /**
+     * Counting comparator given to the wrapped machine.
+     */
+    private CountingOrder<T> countingOrder;
+
+    /**
+     * Wrapped machine.
+     */
+    private SortingMachine<T> machine;
+
+    /**
+     * Makes the wrapped machine record its swaps and sift-downs in
+     * $this.stats, if it is a machine that can.
+     *
+     * @updates $this.machine
+     */
+    private void connectStats() {
+        if (this.machine instanceof SortingMachine5a<?>) {
+            ((SortingMachine5a<?>) this.machine).setStats(this.stats);
+        }
+    }
+
+    /**
+     * Creator of initial representation, keeping $this.stats.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param machineFactory
+     *            factory for the wrapped machine
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.machineOrder = order  and
+     * $this.factory = machineFactory  and
+     * $this.machine = (true, $this.countingOrder, {})
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order,
+            Function<Comparator<T>, SortingMachine<T>> machineFactory) {
+
+        //Builds a fresh wrapped machine around a fresh counting comparator
+        this.machineOrder = order;
+        this.factory = machineFactory;
+        this.countingOrder = new CountingOrder<T>(order, this.stats);
+        this.machine = machineFactory.apply(this.countingOrder);
+        this.connectStats();
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and factory for the wrapped machine.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param factory
+     *            builds an empty machine, in insertion mode, from a
+     *            {@code Comparator}
+     */
+    public InstrumentedSortingMachine(Comparator<T> order,
+            Function<Comparator<T>, SortingMachine<T>> factory) {
+        assert factory != null : "Violation of: factory is not null";
+        this.stats = new SortingMachineStats();
+        this.createNewRep(order, factory);
+    }
+
+    /**
+     * Reports the statistics recorded for {@code this}; they keep being
+     * updated as {@code this} is used, and can be reset.
+     *
+     * @return the statistics
+     * @aliases reference returned value
+     */
+    public final SortingMachineStats stats() {
+        return this.stats;
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final SortingMachine<T> newInstance() {
+        return new InstrumentedSortingMachine<T>(this.machineOrder,
+                this.factory);
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.factory);
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof InstrumentedSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " InstrumentedSortingMachine<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * InstrumentedSortingMachine<?>, and the ? must be T or the call would
+         * not have compiled.
+         */
+        InstrumentedSortingMachine<T> localSource;
+        localSource = (InstrumentedSortingMachine<T>) source;
+
+        //Takes over the source's wrapped machine, which from now on records
+        //in this.stats; the statistics themselves stay where they are
+        this.machineOrder = localSource.machineOrder;
+        this.factory = localSource.factory;
+        this.countingOrder = localSource.countingOrder;
+        this.machine = localSource.machine;
+        this.countingOrder.stats = this.stats;
+        this.connectStats();
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.factory);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        long start = System.nanoTime();
+        this.machine.add(x);
+        this.stats.countAdd(System.nanoTime() - start);
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        long start = System.nanoTime();
+        this.machine.changeToExtractionMode();
+        this.stats.countChangeToExtractionMode(System.nanoTime() - start);
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        long start = System.nanoTime();
+        T removed = this.machine.removeFirst();
+        this.stats.countRemoveFirst(System.nanoTime() - start);
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.machine.isInInsertionMode();
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        return this.machine.size();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return this.machine.iterator();
+    }
+
+}
@@ -0,0 +1,466 @@
+import java.util.Arrays;
+
+/**
+ * Sorting machine for primitive {@code long} keys (and so for {@code int}
+ * keys too), each optionally with a payload, represented as parallel arrays
+ * sorted by an LSD radix sort.
+ *
+ * <p>
+ * It works like a {@code SortingMachine} ordered by the natural order of the
+ * keys, without boxing and without a {@code Comparator}: entries are added in
+ * insertion mode, {@code changeToExtractionMode} sorts them, and
+ * {@code removeFirst} removes them from the smallest key up. The radix sort
+ * works on the keys minus the smallest key, one byte per pass, and only makes
+ * as many passes as the spread between the smallest and largest keys needs
+ * (at most 4 for {@code int} keys), skipping any pass in which all the keys
+ * have the same byte. It is stable, so entries with equal keys come out in
+ * the order they were added.
+ * </p>
+ *
+ * @param <P>
+ *            type of the payloads
+ * @mathmodel <pre>
+ * type LongSortingMachineModel is (
+ *   insertion_mode: boolean,
+ *   contents: string of (key: integer, payload: P)
+ *  )
+ * </pre>
+ * @initially <pre>
+ * ensures
+ *   this = (true, <>)
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.first <= $this.length <= |$this.keys|  and
+ * ($this.payloads = null  or  |$this.payloads| = |$this.keys|)  and
+ * if $this.insertionMode then
+ *   $this.first = 0
+ * else
+ *   [$this.keys[$this.first, $this.length) is in non-decreasing order]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode,
+ *         [the string of pairs ($this.keys[i], $this.payloads[i], or null if
+ *          $this.payloads = null), for i from $this.first to $this.length - 1])
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class LongSortingMachine<P> {
+
+    /**
+     * Number of key bits handled by one radix sort pass.
+     */
+    private static final int DIGIT_BITS = 8;
+
+    /**
+     * Number of buckets in one radix sort pass.
+     */
+    private static final int BUCKETS = 1 << DIGIT_BITS;
+
+    /**
+     * Mask selecting one digit.
+     */
+    private static final long DIGIT_MASK = BUCKETS - 1;
+
+    /**
+     * Length of the arrays in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Keys, in the order added (in insertion mode) or sorted (in extraction
+     * mode).
+     */
+    private long[] keys;
+
+    /**
+     * Payloads, parallel to keys, or null if no payload has been added.
+     */
+    private Object[] payloads;
+
+    /**
+     * Index of the first entry not yet removed.
+     */
+    private int first;
+
+    /**
+     * Index just past the last entry.
+     */
+    private int length;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * <p>
+     * Only the parts that take O(1) time are checked, since this is called
+     * from every {@code removeFirst}: in extraction mode, just the first two
+     * keys not yet removed are compared; {@code keysAreSorted} checks the
+     * order of all the keys once, at the end of
+     * {@code changeToExtractionMode}.
+     * </p>
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.first <= $this.length <= |$this.keys|  and
+     * ($this.payloads = null  or  |$this.payloads| = |$this.keys|)  and
+     * if $this.insertionMode then
+     *   $this.first = 0
+     * else
+     *   [$this.keys[$this.first, $this.length) starts in non-decreasing
+     *    order]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.length : ""
+                + "Violation of: $this.first <= $this.length";
+        assert this.length <= this.keys.length : ""
+                + "Violation of: $this.length <= |$this.keys|";
+        assert this.payloads == null
+                || this.payloads.length == this.keys.length : ""
+                        + "Violation of: $this.payloads = null  or"
+                        + "  |$this.payloads| = |$this.keys|";
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+        } else if (this.first + 1 < this.length) {
+            assert this.keys[this.first] <= this.keys[this.first + 1] : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " [$this.keys[$this.first, $this.length) is in"
+                    + " non-decreasing order]";
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the keys not yet removed are in non-decreasing order, in
+     * O($this.length) time.
+     *
+     * @return true if they are (or if assertion checking is off); otherwise
+     *         reports a violated assertion
+     * @requires not $this.insertionMode
+     * @ensures <pre>
+     * keysAreSorted = [$this.keys[$this.first, $this.length) is in
+     *   non-decreasing order]
+     * </pre>
+     */
+    private boolean keysAreSorted() {
+        for (int i = this.first + 1; i < this.length; i++) {
+            assert this.keys[i - 1] <= this.keys[i] : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " [$this.keys[$this.first, $this.length) is in"
+                    + " non-decreasing order]";
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        //Initializes global variables
+        this.insertionMode = true;
+        this.keys = new long[INITIAL_CAPACITY];
+        this.payloads = null;
+        this.first = 0;
+        this.length = 0;
+
+    }
+
+    /**
+     * Sorts $this.keys[0, $this.length) into non-decreasing order, stably,
+     * moving $this.payloads along with them.
+     *
+     * @updates $this.keys, $this.payloads
+     * @ensures <pre>
+     * [$this.keys[0, $this.length) is #$this.keys[0, $this.length) in
+     *  non-decreasing order, with $this.payloads permuted the same way and
+     *  entries with equal keys in their original relative order]
+     * </pre>
+     */
+    private void radixSort() {
+        int n = this.length;
+        if (n > 1) {
+
+            //Sorts key - min, which needs only as many digits as max - min
+            long min = this.keys[0];
+            long max = this.keys[0];
+            for (int i = 1; i < n; i++) {
+                min = Math.min(min, this.keys[i]);
+                max = Math.max(max, this.keys[i]);
+            }
+            int bits = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+
+            long[] source = this.keys;
+            long[] target = new long[source.length];
+            Object[] payloadSource = this.payloads;
+            Object[] payloadTarget = null;
+            if (payloadSource != null) {
+                payloadTarget = new Object[payloadSource.length];
+            }
+            int[] start = new int[BUCKETS];
+            for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+
+                //Counts the keys with each digit
+                Arrays.fill(start, 0);
+                for (int i = 0; i < n; i++) {
+                    start[(int) (((source[i] - min) >>> shift) & DIGIT_MASK)]++;
+                }
+
+                //A pass where every key has the same digit changes nothing
+                int firstDigit = (int) (((source[0] - min) >>> shift)
+                        & DIGIT_MASK);
+                if (start[firstDigit] < n) {
+
+                    //Turns the counts into the start of each bucket, then
+                    //moves each entry to the next free place in its bucket
+                    int total = 0;
+                    for (int b = 0; b < BUCKETS; b++) {
+                        int count = start[b];
+                        start[b] = total;
+                        total += count;
+                    }
+                    for (int i = 0; i < n; i++) {
+                        int b = (int) (((source[i] - min) >>> shift)
+                                & DIGIT_MASK);
+                        int place = start[b];
+                        start[b]++;
+                        target[place] = source[i];
+                        if (payloadSource != null) {
+                            payloadTarget[place] = payloadSource[i];
+                        }
+                    }
+
+                    long[] keysSwap = source;
+                    source = target;
+                    target = keysSwap;
+                    Object[] payloadSwap = payloadSource;
+                    payloadSource = payloadTarget;
+                    payloadTarget = payloadSwap;
+                }
+            }
+            this.keys = source;
+            this.payloads = payloadSource;
+        }
+    }
+
+    /**
+     * Doubles the length of $this.keys (and of $this.payloads, if not null).
+     *
+     * @updates $this.keys, $this.payloads
+     */
+    private void grow() {
+        this.keys = Arrays.copyOf(this.keys, 2 * this.keys.length);
+        if (this.payloads != null) {
+            this.payloads = Arrays.copyOf(this.payloads, this.keys.length);
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public LongSortingMachine() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    /**
+     * Resets {@code this} to an initial value.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sets {@code this} to the incoming value of {@code source}, and resets
+     * {@code source} to an initial value.
+     *
+     * @param source
+     *            the object whose value is to be transferred
+     * @replaces this
+     * @clears source
+     * @requires source is not this
+     * @ensures this = #source
+     */
+    public final void transferFrom(LongSortingMachine<P> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        this.insertionMode = source.insertionMode;
+        this.keys = source.keys;
+        this.payloads = source.payloads;
+        this.first = source.first;
+        this.length = source.length;
+        source.createNewRep();
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds an entry with key {@code key} and no (null) payload.
+     *
+     * @param key
+     *            the key to be added
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents * <(key, null)>
+     */
+    public final void add(long key) {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        //Doubles the arrays when they are full, then appends key
+        if (this.length == this.keys.length) {
+            this.grow();
+        }
+        this.keys[this.length] = key;
+        this.length++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Adds an entry with key {@code key} and payload {@code payload}.
+     *
+     * @param key
+     *            the key to be added
+     * @param payload
+     *            the payload to be added
+     * @aliases reference payload
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents * <(key, payload)>
+     */
+    public final void add(long key, P payload) {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        //Makes room for payloads the first time one is added
+        if (this.payloads == null) {
+            this.payloads = new Object[this.keys.length];
+        }
+        if (this.length == this.keys.length) {
+            this.grow();
+        }
+        this.keys[this.length] = key;
+        this.payloads[this.length] = payload;
+        this.length++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Changes the mode of {@code this} from insertion to extraction.
+     *
+     * @updates this.insertion_mode, this.contents
+     * @requires this.insertion_mode
+     * @ensures <pre>
+     * not this.insertion_mode  and
+     * [this.contents is #this.contents sorted by key, stably]
+     * </pre>
+     */
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        //Changes insertionMode boolean to false, and sorts the entries
+        this.insertionMode = false;
+        this.radixSort();
+
+        assert this.conventionHolds();
+        assert this.keysAreSorted();
+    }
+
+    /**
+     * Removes the first entry of {@code this} and reports its key.
+     *
+     * @return the key of the removed entry
+     * @updates this.contents
+     * @requires not this.insertion_mode  and  this.contents /= <>
+     * @ensures #this.contents = <(removeFirst, [some payload])> * this.contents
+     */
+    public final long removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.first < this.length : "Violation of: this.contents /= <>";
+
+        //Entries are sorted, so the first one is next in line
+        long removed = this.keys[this.first];
+        if (this.payloads != null) {
+            this.payloads[this.first] = null;
+        }
+        this.first++;
+
+        assert this.conventionHolds();
+
+        return removed;
+    }
+
+    /**
+     * Reports the payload of the first entry of {@code this}, the one
+     * {@code removeFirst} would remove next.
+     *
+     * @return the payload of the first entry
+     * @aliases reference returned value
+     * @requires not this.insertion_mode  and  this.contents /= <>
+     * @ensures <pre>
+     * there exists k: integer
+     *   (<(k, firstPayload)> is prefix of this.contents)
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    public final P firstPayload() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.first < this.length : "Violation of: this.contents /= <>";
+
+        P payload = null;
+        if (this.payloads != null) {
+            payload = (P) this.payloads[this.first];
+        }
+        return payload;
+    }
+
+    /**
+     * Reports whether this is in insertion mode.
+     *
+     * @return true iff this is in insertion mode
+     * @ensures isInInsertionMode = this.insertion_mode
+     */
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}.
+     *
+     * @return the (non-negative) size of this.contents
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        return this.length - this.first;
+    }
+
+}
@@ -1,15 +1,27 @@
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-import components.queue.Queue;
-import components.queue.Queue1L;
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachineSecondary;
 
 /**
- * {@code SortingMachine} represented as a {@code Queue} and an array (using an
- * embedding of heap sort), with implementations of primary methods.
+ * {@code SortingMachine} represented as an array (using an embedding of heap
+ * sort), with implementations of primary methods.
+ *
+ * <p>
+ * In insertion mode the array grows (by doubling) to hold the entries in the
+ * order they are added; {@code changeToExtractionMode} then turns it into a
+ * heap in place.
+ * </p>
+ *
+ * <p>
+ * The heap is d-ary, with the arity d chosen at construction (2 by default).
+ * A larger arity makes the heap shallower, so {@code removeFirst} moves
+ * entries fewer times and touches fewer, more closely packed, parts of the
+ * array, at the cost of comparing up to d children per level.
+ * </p>
  *
  * @param <T>
  *            type of {@code SortingMachine} entries
@@ -25,39 +37,39 @@ import components.sortingmachine.SortingMachineSecondary;
  *   a: string of T,
  *   start: integer,
  *   stop: integer,
+ *   d: integer,
  *   r: binary relation on T
  *  ) : boolean is
- *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *  [the subtree of a (when a is interpreted as a complete d-ary tree, where
+ *   the children of index i are indices d * i + 1 through d * i + d) rooted
  *   at index start and only through entry stop of a satisfies the heap
  *   ordering property according to the relation r]
  *
  * SUBTREE_ARRAY_ENTRIES (
  *   a: string of T,
  *   start: integer,
- *   stop: integer
+ *   stop: integer,
+ *   d: integer
  *  ) : finite multiset of T is
  *  [the multiset of entries in a that belong to the subtree of a
- *   (when a is interpreted as a complete binary tree) rooted at
+ *   (when a is interpreted as a complete d-ary tree) rooted at
  *   index start and only through entry stop]
  * </pre>
  * @convention <pre>
  * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
- * if $this.insertionMode then
- *   $this.heapSize = 0
- * else
- *   $this.entries = <>  and
- *   for all i: integer
- *       where (0 <= i  and  i < |$this.heap|)
- *     ([entry at position i in $this.heap is not null])  and
- *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
- *     [relation computed by $this.machineOrder.compare method])  and
- *   0 <= $this.heapSize <= |$this.heap|
+ * $this.arity >= 2  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null])  and
+ * [the other entries of $this.heap are null]  and
+ * if not $this.insertionMode then
+ *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1, $this.arity,
+ *     [relation computed by $this.machineOrder.compare method])
  * </pre>
  * @correspondence <pre>
- * if $this.insertionMode then
- *   this = (true, $this.machineOrder, multiset_entries($this.entries))
- * else
- *   this = (false, $this.machineOrder, multiset_entries($this.heap[0, $this.heapSize)))
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[0, $this.heapSize)))
  * </pre>
  *
  * @author Akshay Anand and Alexander Nistor
@@ -65,6 +77,55 @@ import components.sortingmachine.SortingMachineSecondary;
  */
 public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
+    /**
+     * Levels of invariant checking for {@code SortingMachine5a}; they only
+     * matter when assertion checking is enabled, since all the checks are made
+     * in {@code assert} statements.
+     */
+    public enum Checking {
+
+        /**
+         * Check the convention on every call, and every requires clause of the
+         * private helper methods, including the O(n) scans.
+         */
+        FULL,
+
+        /**
+         * Check the convention on one call out of every
+         * {@code SAMPLE_PERIOD} calls on the same machine, and skip the O(n)
+         * scans in the private helper methods (the convention covers them).
+         */
+        SAMPLED,
+
+        /**
+         * Never check the convention, and skip the O(n) scans in the private
+         * helper methods.
+         */
+        OFF
+
+    }
+
+    /**
+     * Name of the system property used to pick the initial checking level.
+     */
+    public static final String CHECKING_PROPERTY = "SortingMachine5a.checking";
+
+    /**
+     * Number of calls to {@code conventionHolds} per actual check when the
+     * checking level is {@code SAMPLED}.
+     */
+    private static final int SAMPLE_PERIOD = 64;
+
+    /**
+     * Length of the array in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Current checking level, shared by all {@code SortingMachine5a} objects.
+     */
+    private static volatile Checking checking = initialChecking();
+
     /*
      * Private members --------------------------------------------------------
      */
@@ -80,12 +141,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     private boolean insertionMode;
 
     /**
-     * Entries.
-     */
-    private Queue<T> entries;
-
-    /**
-     * Heap.
+     * Entries, in the order added (in insertion mode) or as a heap (in
+     * extraction mode).
      */
     private T[] heap;
 
@@ -94,6 +151,115 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      */
     private int heapSize;
 
+    /**
+     * Number of children of each interior node of the heap.
+     */
+    private int arity;
+
+    /**
+     * Where swaps and sift-downs are recorded, or null.
+     */
+    private SortingMachineStats stats;
+
+    /**
+     * Calls to {@code conventionHolds} since the last actual check, used when
+     * the checking level is {@code SAMPLED}.
+     */
+    private int callsSinceCheck;
+
+    /**
+     * Number of times {@code conventionHolds} has actually checked the
+     * representation of this machine.
+     */
+    private int checksDone;
+
+    /**
+     * Sets the level of invariant checking for all {@code SortingMachine5a}
+     * objects.
+     *
+     * @param level
+     *            the new checking level
+     * @ensures SortingMachine5a.checking() = level
+     */
+    public static void setChecking(Checking level) {
+        assert level != null : "Violation of: level is not null";
+        checking = level;
+    }
+
+    /**
+     * Reports the level of invariant checking for all {@code SortingMachine5a}
+     * objects.
+     *
+     * @return the current checking level
+     */
+    public static Checking checking() {
+        return checking;
+    }
+
+    /**
+     * Reports the checking level named by the {@code CHECKING_PROPERTY} system
+     * property, ignoring case, or {@code FULL} if the property is not set or
+     * does not name a level.
+     *
+     * @return the initial checking level
+     */
+    private static Checking initialChecking() {
+        String name = System.getProperty(CHECKING_PROPERTY);
+        Checking level = Checking.FULL;
+        if (name != null) {
+            for (Checking c : Checking.values()) {
+                if (c.name().equalsIgnoreCase(name.trim())) {
+                    level = c;
+                }
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Reports how many times {@code conventionHolds} has actually checked the
+     * representation of {@code this}; for testing the checking levels.
+     *
+     * @return the number of convention checks done on this machine
+     */
+    final int conventionChecks() {
+        return this.checksDone;
+    }
+
+    /**
+     * Reports whether the O(n) requires-clause scans in the private helper
+     * methods should be made.
+     *
+     * @return true if the checking level is {@code FULL}
+     */
+    private static boolean scansEnabled() {
+        return checking == Checking.FULL;
+    }
+
+    /**
+     * Reports whether this call to {@code conventionHolds} should actually
+     * check the representation, according to the current checking level.
+     *
+     * @return true if the convention should be checked on this call
+     * @updates this.callsSinceCheck
+     */
+    private boolean checkIsDue() {
+        boolean due;
+        Checking level = checking;
+        if (level == Checking.FULL) {
+            due = true;
+        } else if (level == Checking.SAMPLED) {
+            this.callsSinceCheck++;
+            due = this.callsSinceCheck >= SAMPLE_PERIOD;
+            if (due) {
+                this.callsSinceCheck = 0;
+            }
+        } else {
+            due = false;
+        }
+        return due;
+    }
+
     /**
      * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
      *
@@ -125,204 +291,167 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     }
 
     /**
-     * Given an array that represents a complete binary tree and an index
+     * Given an array that represents a complete d-ary tree and an index
      * referring to the root of a subtree that would be a heap except for its
      * root, sifts the root down to turn that whole subtree into a heap.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete d-ary tree
      * @param top
      *            the index of the root of the "subtree"
      * @param last
      *            the index of the last entry in the heap
+     * @param d
+     *            the arity of the tree
      * @param order
      *            total preorder for sorting
+     * @return the number of levels the root entry moved down
      * @updates array
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 0 <= top  and  last < |array|  and  d >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
-     *     [relation computed by order.compare method])  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
-     *     [relation computed by order.compare method])  and
+     * [subtree rooted at {@code top} is a complete d-ary tree]  and
+     * for all c: integer
+     *     where (d * top + 1 <= c  and  c <= d * top + d)
+     *   (SUBTREE_IS_HEAP(array, c, last, d,
+     *     [relation computed by order.compare method]))  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, last,
+     * SUBTREE_IS_HEAP(array, top, last, d,
      *     [relation computed by order.compare method])  and
      * perms(array, #array)  and
-     * SUBTREE_ARRAY_ENTRIES(array, top, last) =
-     *  SUBTREE_ARRAY_ENTRIES(#array, top, last)  and
+     * SUBTREE_ARRAY_ENTRIES(array, top, last, d) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, top, last, d)  and
      * [the other entries in array are the same as in #array]
      * </pre>
      */
-    private static <T> void siftDown(T[] array, int top, int last,
+    private static <T> int siftDown(T[] array, int top, int last, int d,
             Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+        assert d >= 2 : "Violation of: d >= 2";
+        if (scansEnabled()) {
+            for (int i = 0; i <= last; i++) {
+                assert array[i] != null : ""
+                        + "Violation of: entries through last are not null";
+            }
+            for (int c = d * top + 1; c <= d * top + d; c++) {
+                assert isHeap(array, c, last, d, order) : ""
+                        + "Violation of: SUBTREE_IS_HEAP(array, c, last, d,"
+                        + " [relation computed by order.compare method])"
+                        + " for every child c of top";
+            }
         }
-        assert isHeap(array, 2 * top + 1, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
-                + " [relation computed by order.compare method])";
-        assert isHeap(array, 2 * top + 2, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
-                + " [relation computed by order.compare method])";
         /*
          * Impractical to check last requires clause; no need to check the other
          * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
+         * representation for a complete d-ary tree.
          */
 
-        //Checks if there are at least 2 nodes to compare, in the array
-        if (top <= last) { 
-
-            //Initializes and assigns values for left and right indexes
-            int left = 2 * top + 1;
-            int right = left + 1;
-
-            //Checks if current tree is a heap, if not method sifts through array
-            //to make it one
-            if (!isHeap(array, top, last, order)) {
-
-                //Initializes variable to store index for recursion
-                int treeToTravel;
+        //Holds the root entry aside and moves the "hole" it leaves down the
+        //tree, pulling the smallest child up each time, until the root entry
+        //fits; this costs at most d comparisons per level
+        int levels = 0;
+        if (top <= last) {
+            T root = array[top];
+            int hole = top;
+            int child = d * hole + 1;
+            boolean placed = false;
+            while (!placed && child <= last) {
+
+                //Picks the smallest of the (up to d) children
+                int smallest = child;
+                int lastChild = Math.min(child + d - 1, last);
+                for (int c = child + 1; c <= lastChild; c++) {
+                    if (order.compare(array[c], array[smallest]) < 0) {
+                        smallest = c;
+                    }
+                }
 
-                //Checks for which node should be swapped with root node
-                if (right <= last
-                        && order.compare(array[left], array[right]) >= 0) {
-                    exchangeEntries(array, top, right);
-                    treeToTravel = right;
+                //Pulls that child up if it belongs above the root entry
+                if (order.compare(array[smallest], root) < 0) {
+                    array[hole] = array[smallest];
+                    hole = smallest;
+                    child = d * hole + 1;
+                    levels++;
                 } else {
-                    exchangeEntries(array, top, left);
-                    treeToTravel = left;
+                    placed = true;
                 }
-
-                //Keeps sifting array based on which node was swapped
-                siftDown(array, treeToTravel, last, order);
             }
+            array[hole] = root;
         }
 
+        return levels;
     }
 
     /**
-     * Heapifies the subtree of the given array rooted at the given {@code top}.
+     * Heapifies the first {@code size} entries of the given array, bottom-up
+     * (Floyd's method): every subtree is made a heap by sifting its root down,
+     * starting from the last subtree with children and working back to the
+     * root, for O(size) comparisons in total.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
-     * @param top
-     *            the index of the root of the "subtree" to heapify
+     *            the complete d-ary tree
+     * @param size
+     *            the number of entries in the tree
+     * @param d
+     *            the arity of the tree
      * @param order
      *            the total preorder for sorting
-     * @updates array
+     * @param stats
+     *            where to record the sift-downs and swaps, or null
+     * @updates array, stats
      * @requires <pre>
-     * 0 <= top  and
+     * 0 <= size <= |array|  and  d >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i < size)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, |array| - 1,
+     * SUBTREE_IS_HEAP(array, 0, size - 1, d,
      *     [relation computed by order.compare method])  and
-     * perms(array, #array)
+     * perms(array, #array)  and
+     * [the entries of array from index size on are the same as in #array]
      * </pre>
      */
-    private static <T> void heapify(T[] array, int top, Comparator<T> order) {
+    private static <T> void heapify(T[] array, int size, int d,
+            Comparator<T> order, SortingMachineStats stats) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
-        assert 0 <= top : "Violation of: 0 <= top";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+        assert 0 <= size : "Violation of: 0 <= size";
+        assert size <= array.length : "Violation of: size <= |array|";
+        assert d >= 2 : "Violation of: d >= 2";
+        if (scansEnabled()) {
+            for (int i = 0; i < size; i++) {
+                assert array[i] != null : ""
+                        + "Violation of: entries before size are not null";
+            }
         }
         /*
-         * Impractical to check last requires clause; no need to check the other
-         * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
+         * Impractical to check last requires clause.
          */
 
-        //Initializes and assigns values for left, right , and last variables
-        //based on array size and top variable
-        int left = 2 * top + 1;
-        int right = left++;
-        int last = array.length - 1;
-
-        //Checks if array needs to be heapified
-        if (!isHeap(array, top, last, order)) {
-
-            //First heapifies left and right subtrees before sifting down
-            //both with the root node
-            heapify(array, left, order);
-            heapify(array, right, order);
-            siftDown(array, top, last, order);
-        }
-
-    }
-
-    /**
-     * Constructs and returns an array representing a heap with the entries from
-     * the given {@code Queue}.
-     *
-     * @param <T>
-     *            type of {@code Queue} and array entries
-     * @param q
-     *            the {@code Queue} with the entries for the heap
-     * @param order
-     *            the total preorder for sorting
-     * @return the array representation of a heap
-     * @clears q
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
-     * @ensures <pre>
-     * SUBTREE_IS_HEAP(buildHeap, 0, |buildHeap| - 1)  and
-     * perms(buildHeap, #q)  and
-     * for all i: integer
-     *     where (0 <= i  and  i < |buildHeap|)
-     *   ([entry at position i in buildHeap is not null])  and
-     * </pre>
-     */
-    @SuppressWarnings("unchecked")
-    private static <T> T[] buildHeap(Queue<T> q, Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
-        assert order != null : "Violation of: order is not null";
-        /*
-         * Impractical to check the requires clause.
-         */
-        /*
-         * With "new T[...]" in place of "new Object[...]" it does not compile;
-         * as shown, it results in a warning about an unchecked cast, though it
-         * cannot fail.
-         */
-        T[] heap = (T[]) (new Object[q.length()]);
-
-        //Stores length of queue q before transfering elements
-        int length = q.length();
-
-        //For-loop iterates through queue q, by dequeuing each element and adding
-        //it to array heap
-        for (int i = 0; i < length; i++) {
-
-            //Dequeues and stores element before adding it to heap array at index i
-            T element = q.dequeue();
-            heap[i] = element;
+        //Sifts down the root of each subtree with children, deepest first, so
+        //all child subtrees are already heaps each time
+        int last = size - 1;
+        for (int top = (last - 1) / d; top >= 0; top--) {
+            int levels = siftDown(array, top, last, d, order);
+            if (stats != null) {
+                stats.countSwaps(levels);
+                stats.countSiftDown(levels);
+            }
         }
 
-        //Heapifies newly filled array heap before returning it
-        heapify(heap, 0, order);
-
-        return heap;
     }
 
     /**
@@ -332,50 +461,52 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete d-ary tree
      * @param top
      *            the index of the root of the "subtree"
      * @param last
      *            the index of the last entry in the heap
+     * @param d
+     *            the arity of the tree
      * @param order
      *            total preorder for sorting
      * @return true if the subtree of the given {@code array} rooted at the
      *         given {@code top} is a heap; false otherwise
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 0 <= top  and  last < |array|  and  d >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]
+     * [subtree rooted at {@code top} is a complete d-ary tree]
      * </pre>
      * @ensures <pre>
-     * isHeap = SUBTREE_IS_HEAP(array, top, last,
+     * isHeap = SUBTREE_IS_HEAP(array, top, last, d,
      *     [relation computed by order.compare method])
      * </pre>
      */
-    private static <T> boolean isHeap(T[] array, int top, int last,
+    private static <T> boolean isHeap(T[] array, int top, int last, int d,
             Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+        assert d >= 2 : "Violation of: d >= 2";
+        if (scansEnabled()) {
+            for (int i = 0; i <= last; i++) {
+                assert array[i] != null : ""
+                        + "Violation of: entries through last are not null";
+            }
         }
         /*
          * No need to check the other requires clause, because it must be true
-         * when using the Array representation for a complete binary tree.
+         * when using the Array representation for a complete d-ary tree.
          */
-        int left = 2 * top + 1;
         boolean isHeap = true;
-        if (left <= last) {
-            isHeap = (order.compare(array[top], array[left]) <= 0)
-                    && isHeap(array, left, last, order);
-            int right = left + 1;
-            if (isHeap && (right <= last)) {
-                isHeap = (order.compare(array[top], array[right]) <= 0)
-                        && isHeap(array, right, last, order);
-            }
+        int child = d * top + 1;
+        int lastChild = Math.min(d * top + d, last);
+        while (isHeap && child <= lastChild) {
+            isHeap = (order.compare(array[top], array[child]) <= 0)
+                    && isHeap(array, child, last, d, order);
+            child++;
         }
         return isHeap;
     }
@@ -384,44 +515,47 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * Checks that the part of the convention repeated below holds for the
      * current representation.
      *
+     * <p>
+     * The check is skipped (and true returned) on calls where
+     * {@code checkIsDue} says no check is due.
+     * </p>
+     *
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
      * @convention <pre>
-     * if $this.insertionMode then
-     *   $this.heapSize = 0
-     * else
-     *   $this.entries = <>  and
-     *   for all i: integer
-     *       where (0 <= i  and  i < |$this.heap|)
-     *     ([entry at position i in $this.heap is not null])  and
-     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
-     *     [relation computed by $this.machineOrder.compare method])  and
-     *   0 <= $this.heapSize <= |$this.heap|
+     * $this.arity >= 2  and
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null])  and
+     * [the other entries of $this.heap are null]  and
+     * if not $this.insertionMode then
+     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1, $this.arity,
+     *     [relation computed by $this.machineOrder.compare method])
      * </pre>
      */
     private boolean conventionHolds() {
-        if (this.insertionMode) {
-            assert this.heapSize == 0 : ""
-                    + "Violation of: if $this.insertionMode then $this.heapSize = 0";
-        } else {
-            assert this.entries.length() == 0 : ""
-                    + "Violation of: if not $this.insertionMode then $this.entries = <>";
-            assert 0 <= this.heapSize : ""
-                    + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
-            assert this.heapSize <= this.heap.length : ""
-                    + "Violation of: if not $this.insertionMode then"
-                    + " $this.heapSize <= |$this.heap|";
-            for (int i = 0; i < this.heap.length; i++) {
-                assert this.heap[i] != null : ""
-                        + "Violation of: if not $this.insertionMode then"
-                        + " all entries in $this.heap are not null";
-            }
-            assert isHeap(this.heap, 0, this.heapSize - 1,
+        if (!this.checkIsDue()) {
+            return true;
+        }
+        this.checksDone++;
+
+        assert this.arity >= 2 : "Violation of: $this.arity >= 2";
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        for (int i = 0; i < this.heap.length; i++) {
+            assert (this.heap[i] != null) == (i < this.heapSize) : ""
+                    + "Violation of: [exactly the entries of $this.heap"
+                    + " before $this.heapSize are not null]";
+        }
+        if (!this.insertionMode) {
+            assert isHeap(this.heap, 0, this.heapSize - 1, this.arity,
                     this.machineOrder) : ""
                             + "Violation of: if not $this.insertionMode then"
                             + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
-                            + " [relation computed by $this.machineOrder.compare"
-                            + " method])";
+                            + " $this.arity, [relation computed by"
+                            + " $this.machineOrder.compare method])";
         }
         return true;
     }
@@ -431,19 +565,31 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *
      * @param order
      *            total preorder for sorting
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @param d
+     *            arity of the heap
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * d >= 2
+     * </pre>
      * @ensures <pre>
      * $this.insertionMode = true  and
      * $this.machineOrder = order  and
-     * $this.entries = <>  and
+     * $this.arity = d  and
      * $this.heapSize = 0
      * </pre>
      */
-    private void createNewRep(Comparator<T> order) {
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int d) {
 
         //Initializes global variables
         this.machineOrder = order;
-        this.entries = new Queue1L<T>();
+        this.arity = d;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.heap = (T[]) (new Object[INITIAL_CAPACITY]);
         this.insertionMode = true;
         this.heapSize = 0;
 
@@ -454,16 +600,54 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      */
 
     /**
-     * Constructor from order.
+     * Constructor from order, using a binary heap.
      *
      * @param order
      *            total preorder for sorting
      */
     public SortingMachine5a(Comparator<T> order) {
-        this.createNewRep(order);
+        this(order, 2);
+    }
+
+    /**
+     * Constructor from order and heap arity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            number of children of each interior node of the heap
+     * @requires arity >= 2
+     */
+    public SortingMachine5a(Comparator<T> order, int arity) {
+        assert arity >= 2 : "Violation of: arity >= 2";
+        this.createNewRep(order, arity);
         assert this.conventionHolds();
     }
 
+    /**
+     * Reports the number of children of each interior node of the heap.
+     *
+     * @return the arity of the heap
+     * @ensures arity = $this.arity
+     */
+    public final int arity() {
+        return this.arity;
+    }
+
+    /**
+     * Makes {@code this} record its swaps and sift-downs in {@code s} from now
+     * on (or stop recording them, if {@code s} is null). The statistics stay
+     * with {@code this}: they do not move with {@code transferFrom}, nor
+     * carry over to {@code newInstance}.
+     *
+     * @param s
+     *            where to record, or null
+     * @aliases reference s
+     */
+    public final void setStats(SortingMachineStats s) {
+        this.stats = s;
+    }
+
     /*
      * Standard methods -------------------------------------------------------
      */
@@ -472,8 +656,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final SortingMachine<T> newInstance() {
         try {
-            return this.getClass().getConstructor(Comparator.class)
-                    .newInstance(this.machineOrder);
+            return this.getClass()
+                    .getConstructor(Comparator.class, int.class)
+                    .newInstance(this.machineOrder, this.arity);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -482,7 +667,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     @Override
     public final void clear() {
-        this.createNewRep(this.machineOrder);
+        this.createNewRep(this.machineOrder, this.arity);
         assert this.conventionHolds();
     }
 
@@ -501,10 +686,11 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         SortingMachine5a<T> localSource = (SortingMachine5a<T>) source;
         this.insertionMode = localSource.insertionMode;
         this.machineOrder = localSource.machineOrder;
-        this.entries = localSource.entries;
+        this.arity = localSource.arity;
         this.heap = localSource.heap;
         this.heapSize = localSource.heapSize;
-        localSource.createNewRep(localSource.machineOrder);
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.arity);
         assert this.conventionHolds();
         assert localSource.conventionHolds();
     }
@@ -518,8 +704,12 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        //Adds object x to entries queue
-        this.entries.enqueue(x);
+        //Doubles the array when it is full, then appends x
+        if (this.heapSize == this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, 2 * this.heapSize);
+        }
+        this.heap[this.heapSize] = x;
+        this.heapSize++;
 
         assert this.conventionHolds();
     }
@@ -531,9 +721,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         //Changes insertionMode boolean to false
         this.insertionMode = false;
 
-        //Builds heap to be used for extraction
-        this.heap = buildHeap(this.entries, this.machineOrder);
-        this.heapSize = this.heap.length;
+        //Turns the entries, already in the array, into a heap in place
+        heapify(this.heap, this.heapSize, this.arity, this.machineOrder,
+                this.stats);
 
         assert this.conventionHolds();
     }
@@ -557,11 +747,18 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
             int last = this.heapSize - 2;
 
             //Sifts down heap array to fix it after removing the first node
-            siftDown(this.heap, 0, last, this.machineOrder);
+            int levels = siftDown(this.heap, 0, last, this.arity,
+                    this.machineOrder);
+            if (this.stats != null) {
+                this.stats.countSwap();
+                this.stats.countSwaps(levels);
+                this.stats.countSiftDown(levels);
+            }
         }
 
-        //Decrements heap size
+        //Decrements heap size, and lets go of the removed entry
         this.heapSize--;
+        this.heap[this.heapSize] = null;
 
         assert this.conventionHolds();
 
@@ -583,20 +780,10 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final int size() {
 
-        //Initializes variable to hold the length to be returned
-        int sizeReturned = 0;
-
-        //If in insertion mode, the size returned is the size of the queue of entries
-        //else the size of the heap is returned
-        if (this.insertionMode) {
-            sizeReturned = this.entries.length();
-        } else {
-            sizeReturned = this.heapSize;
-        }
-
+        //The entries are in the array in both modes
         assert this.conventionHolds();
 
-        return sizeReturned;
+        return this.heapSize;
     }
 
     @Override
@@ -611,12 +798,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     private final class SortingMachine5aIterator implements Iterator<T> {
 
         /**
-         * Representation iterator when in insertion mode.
-         */
-        private Iterator<T> queueIterator;
-
-        /**
-         * Representation iterator count when in extraction mode.
+         * Representation iterator count.
          */
         private int arrayCurrentIndex;
 
@@ -624,22 +806,14 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
          * No-argument constructor.
          */
         private SortingMachine5aIterator() {
-            if (SortingMachine5a.this.insertionMode) {
-                this.queueIterator = SortingMachine5a.this.entries.iterator();
-            } else {
-                this.arrayCurrentIndex = 0;
-            }
+            this.arrayCurrentIndex = 0;
             assert SortingMachine5a.this.conventionHolds();
         }
 
         @Override
         public boolean hasNext() {
-            boolean hasNext;
-            if (SortingMachine5a.this.insertionMode) {
-                hasNext = this.queueIterator.hasNext();
-            } else {
-                hasNext = this.arrayCurrentIndex < SortingMachine5a.this.heapSize;
-            }
+            boolean hasNext = this.arrayCurrentIndex
+                    < SortingMachine5a.this.heapSize;
             assert SortingMachine5a.this.conventionHolds();
             return hasNext;
         }
@@ -655,13 +829,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                  */
                 throw new NoSuchElementException();
             }
-            T next;
-            if (SortingMachine5a.this.insertionMode) {
-                next = this.queueIterator.next();
-            } else {
-                next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
-                this.arrayCurrentIndex++;
-            }
+            T next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
             assert SortingMachine5a.this.conventionHolds();
             return next;
         }
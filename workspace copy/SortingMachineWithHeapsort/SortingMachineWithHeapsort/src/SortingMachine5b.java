@@ -0,0 +1,645 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * Bounded {@code SortingMachine} that keeps only the {@code limit} entries
+ * that come first in its order, represented as an array (a heap during
+ * insertion mode, sorted during extraction mode), with implementations of
+ * primary methods.
+ *
+ * <p>
+ * This is meant for clients that add many entries but only remove the first
+ * few: memory is O(limit) however many entries are added, {@code add} is
+ * O(log limit), and {@code changeToExtractionMode} is O(limit log limit).
+ * Every method has the {@code SortingMachine} contract except {@code add},
+ * whose ensures clause is
+ * </p>
+ *
+ * <pre>
+ * this.insertion_mode = #this.insertion_mode  and
+ * this.ordering = #this.ordering  and
+ * this.contents = FIRST_ENTRIES(#this.contents union {x}, limit,
+ *     [relation computed by this.ordering.compare method])
+ * </pre>
+ *
+ * <p>
+ * so a {@code SortingMachine5b} to which no more than {@code limit} entries
+ * are added behaves exactly like any other {@code SortingMachine}. Among
+ * entries that are equivalent under the order, the ones added earlier are
+ * kept: each entry carries the number of the {@code add} call that brought it
+ * in, and the heap breaks ties by that number, so the entry at the root (the
+ * one to be dropped next) is always the latest-added of the entries that come
+ * last.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * FIRST_ENTRIES (
+ *   m: finite multiset of T,
+ *   k: integer,
+ *   r: binary relation on T
+ *  ) : finite multiset of T satisfying
+ *  [FIRST_ENTRIES(m, k, r) is a sub-multiset of m with min(|m|, k) entries,
+ *   and for every x in FIRST_ENTRIES(m, k, r) and every y in the rest of m,
+ *   (x, y) is in r]
+ *
+ * IS_LAST_FIRST_HEAP (
+ *   a: string of T,
+ *   s: string of integer,
+ *   n: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [a[0, n), interpreted as a complete binary tree, satisfies the heap
+ *   ordering property according to the converse of relation r, with ties
+ *   under r broken by s[0, n), so that its root comes last according to r
+ *   and has the largest entry of s among those that come last]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * $this.limit >= 1  and
+ * 0 <= $this.first <= $this.heapSize <= |$this.heap| <= $this.limit  and
+ * |$this.stamps| = |$this.heap|  and
+ * [the entries of $this.heap in [$this.first, $this.heapSize) are not null]  and
+ * [the other entries of $this.heap are null]  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and
+ *   [the entries of $this.stamps in [0, $this.heapSize) are distinct and
+ *    less than $this.nextStamp]  and
+ *   IS_LAST_FIRST_HEAP($this.heap, $this.stamps, $this.heapSize,
+ *     [relation computed by $this.machineOrder.compare method])
+ * else
+ *   [$this.heap[$this.first, $this.heapSize) is sorted according to
+ *    the relation computed by $this.machineOrder.compare method]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[$this.first, $this.heapSize)))
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class SortingMachine5b<T> extends SortingMachineSecondary<T> {
+
+    /**
+     * Largest length of the array in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Maximum number of entries kept.
+     */
+    private int limit;
+
+    /**
+     * Heap (in insertion mode) or sorted entries (in extraction mode).
+     */
+    private T[] heap;
+
+    /**
+     * Index of the first entry not yet removed.
+     */
+    private int first;
+
+    /**
+     * Index just past the last entry.
+     */
+    private int heapSize;
+
+    /**
+     * Insertion stamps: in insertion mode, entry i is the stamp of the entry
+     * at index i of $this.heap.
+     */
+    private long[] stamps;
+
+    /**
+     * Stamp to give the next entry added.
+     */
+    private long nextStamp;
+
+    /**
+     * Reports whether the entry {@code x}, with stamp {@code xStamp}, comes
+     * after the entry {@code y}, with stamp {@code yStamp}, in the order used
+     * by the heap: by {@code order}, with ties broken by stamp.
+     *
+     * @param <T>
+     *            type of entries
+     * @param x
+     *            one entry
+     * @param xStamp
+     *            the stamp of x
+     * @param y
+     *            the other entry
+     * @param yStamp
+     *            the stamp of y
+     * @param order
+     *            total preorder for sorting
+     * @return true if (x, xStamp) comes after (y, yStamp)
+     * @ensures <pre>
+     * comesAfter = (not [x is related to y by order])  or
+     *   ([y is related to x by order]  and  xStamp > yStamp)
+     * </pre>
+     */
+    private static <T> boolean comesAfter(T x, long xStamp, T y, long yStamp,
+            Comparator<T> order) {
+        int c = order.compare(x, y);
+        return c > 0 || (c == 0 && xStamp > yStamp);
+    }
+
+    /**
+     * Given an array whose entries up to index {@code hole} form a heap with
+     * the last entry (according to {@code order}) at the root, except that
+     * the entry at {@code hole} may come later than its parent, moves that
+     * entry up until the heap ordering property holds again.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param stamps
+     *            the stamps of the entries of array
+     * @param hole
+     *            the index of the entry to move up
+     * @param order
+     *            total preorder for sorting
+     * @updates array, stamps
+     * @requires <pre>
+     * 0 <= hole < |array| = |stamps|  and
+     * [array[0, hole] satisfies IS_LAST_FIRST_HEAP except possibly
+     *  between array[hole] and its ancestors]
+     * </pre>
+     * @ensures <pre>
+     * IS_LAST_FIRST_HEAP(array, stamps, hole + 1,
+     *     [relation computed by order.compare method])  and
+     * [array and stamps are permuted together]
+     * </pre>
+     */
+    private static <T> void siftUp(T[] array, long[] stamps, int hole,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert stamps != null : "Violation of: stamps is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= hole : "Violation of: 0 <= hole";
+        assert hole < array.length : "Violation of: hole < |array|";
+        assert array.length == stamps.length : ""
+                + "Violation of: |array| = |stamps|";
+
+        //Holds the entry aside and pulls each ancestor that comes before it
+        //down into the hole
+        T entry = array[hole];
+        long stamp = stamps[hole];
+        int child = hole;
+        boolean placed = false;
+        while (!placed && child > 0) {
+            int parent = (child - 1) / 2;
+            if (comesAfter(entry, stamp, array[parent], stamps[parent],
+                    order)) {
+                array[child] = array[parent];
+                stamps[child] = stamps[parent];
+                child = parent;
+            } else {
+                placed = true;
+            }
+        }
+        array[child] = entry;
+        stamps[child] = stamp;
+    }
+
+    /**
+     * Given an array whose first {@code size} entries would form a heap with
+     * the last entry (according to {@code order}) at the root, except for the
+     * root itself, sifts the root down to turn the whole of them into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param stamps
+     *            the stamps of the entries of array
+     * @param size
+     *            the number of entries in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array, stamps
+     * @requires <pre>
+     * 0 <= size <= |array| = |stamps|  and
+     * [array[0, size) satisfies IS_LAST_FIRST_HEAP except possibly
+     *  between array[0] and its descendants]
+     * </pre>
+     * @ensures <pre>
+     * IS_LAST_FIRST_HEAP(array, stamps, size,
+     *     [relation computed by order.compare method])  and
+     * [array[0, size) and stamps[0, size) are permuted together]  and
+     * [the entries of array and stamps outside [0, size) are unchanged]
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, long[] stamps, int size,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert stamps != null : "Violation of: stamps is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= size : "Violation of: 0 <= size";
+        assert size <= array.length : "Violation of: size <= |array|";
+        assert array.length == stamps.length : ""
+                + "Violation of: |array| = |stamps|";
+
+        //Holds the root aside and pulls the later child up into the hole
+        //until the root entry fits
+        if (size > 0) {
+            T root = array[0];
+            long rootStamp = stamps[0];
+            int hole = 0;
+            int child = 1;
+            boolean placed = false;
+            while (!placed && child < size) {
+                if (child + 1 < size && comesAfter(array[child + 1],
+                        stamps[child + 1], array[child], stamps[child],
+                        order)) {
+                    child++;
+                }
+                if (comesAfter(array[child], stamps[child], root, rootStamp,
+                        order)) {
+                    array[hole] = array[child];
+                    stamps[hole] = stamps[child];
+                    hole = child;
+                    child = 2 * hole + 1;
+                } else {
+                    placed = true;
+                }
+            }
+            array[hole] = root;
+            stamps[hole] = rootStamp;
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.limit >= 1  and
+     * 0 <= $this.first <= $this.heapSize <= |$this.heap| <= $this.limit  and
+     * |$this.stamps| = |$this.heap|  and
+     * [the entries of $this.heap in [$this.first, $this.heapSize) are not null]  and
+     * [the other entries of $this.heap are null]  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and
+     *   [the entries of $this.stamps in [0, $this.heapSize) are distinct and
+     *    less than $this.nextStamp]  and
+     *   IS_LAST_FIRST_HEAP($this.heap, $this.stamps, $this.heapSize,
+     *     [relation computed by $this.machineOrder.compare method])
+     * else
+     *   [$this.heap[$this.first, $this.heapSize) is sorted according to
+     *    the relation computed by $this.machineOrder.compare method]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.limit >= 1 : "Violation of: $this.limit >= 1";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.heapSize : ""
+                + "Violation of: $this.first <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        assert this.heap.length <= this.limit : ""
+                + "Violation of: |$this.heap| <= $this.limit";
+        assert this.stamps.length == this.heap.length : ""
+                + "Violation of: |$this.stamps| = |$this.heap|";
+        for (int i = 0; i < this.heap.length; i++) {
+            boolean inUse = (this.first <= i) && (i < this.heapSize);
+            assert (this.heap[i] != null) == inUse : ""
+                    + "Violation of: [exactly the entries of $this.heap in"
+                    + " [$this.first, $this.heapSize) are not null]";
+        }
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+            for (int i = 0; i < this.heapSize; i++) {
+                assert this.stamps[i] < this.nextStamp : ""
+                        + "Violation of: if $this.insertionMode then [the"
+                        + " entries of $this.stamps in [0, $this.heapSize)"
+                        + " are less than $this.nextStamp]";
+            }
+            for (int i = 1; i < this.heapSize; i++) {
+                int parent = (i - 1) / 2;
+                assert comesAfter(this.heap[parent], this.stamps[parent],
+                        this.heap[i], this.stamps[i], this.machineOrder) : ""
+                                + "Violation of: if $this.insertionMode then"
+                                + " IS_LAST_FIRST_HEAP($this.heap,"
+                                + " $this.stamps, $this.heapSize,"
+                                + " [relation computed by"
+                                + " $this.machineOrder.compare method])";
+            }
+        } else {
+            for (int i = this.first + 1; i < this.heapSize; i++) {
+                assert this.machineOrder.compare(this.heap[i - 1],
+                        this.heap[i]) <= 0 : ""
+                                + "Violation of: if not $this.insertionMode"
+                                + " then [$this.heap[$this.first,"
+                                + " $this.heapSize) is sorted]";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param k
+     *            maximum number of entries kept
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * k >= 1
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.limit = k  and
+     * $this.first = 0  and
+     * $this.heapSize = 0  and
+     * $this.nextStamp = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int k) {
+
+        //Initializes global variables; the arrays grow up to k entries
+        this.machineOrder = order;
+        this.limit = k;
+        this.heap = (T[]) new Object[Math.min(k, INITIAL_CAPACITY)];
+        this.stamps = new long[this.heap.length];
+        this.insertionMode = true;
+        this.first = 0;
+        this.heapSize = 0;
+        this.nextStamp = 0;
+
+    }
+
+    /**
+     * Doubles the length of $this.heap and $this.stamps, but not past
+     * $this.limit.
+     *
+     * @updates $this.heap, $this.stamps
+     * @requires |$this.heap| < $this.limit
+     * @ensures <pre>
+     * |$this.heap| = min(2 * |#$this.heap|, $this.limit)  and
+     * $this.heap[0, |#$this.heap|) = #$this.heap  and
+     * |$this.stamps| = |$this.heap|  and
+     * $this.stamps[0, |#$this.stamps|) = #$this.stamps
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        int capacity = (int) Math.min(2L * this.heap.length, this.limit);
+        T[] larger = (T[]) new Object[capacity];
+        System.arraycopy(this.heap, 0, larger, 0, this.heapSize);
+        this.heap = larger;
+        long[] largerStamps = new long[capacity];
+        System.arraycopy(this.stamps, 0, largerStamps, 0, this.heapSize);
+        this.stamps = largerStamps;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and limit.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param limit
+     *            maximum number of entries kept
+     * @requires limit >= 1
+     */
+    public SortingMachine5b(Comparator<T> order, int limit) {
+        assert limit >= 1 : "Violation of: limit >= 1";
+        this.createNewRep(order, limit);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports the maximum number of entries kept.
+     *
+     * @return the limit
+     * @ensures limit = $this.limit
+     */
+    public final int limit() {
+        return this.limit;
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, int.class)
+                    .newInstance(this.machineOrder, this.limit);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.limit);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5b<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine5b<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5b<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine5b<T> localSource = (SortingMachine5b<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.limit = localSource.limit;
+        this.heap = localSource.heap;
+        this.first = localSource.first;
+        this.heapSize = localSource.heapSize;
+        this.stamps = localSource.stamps;
+        this.nextStamp = localSource.nextStamp;
+        localSource.createNewRep(localSource.machineOrder, localSource.limit);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.heapSize < this.limit) {
+
+            //Still room: adds x as a new leaf and moves it up
+            if (this.heapSize == this.heap.length) {
+                this.grow();
+            }
+            this.heap[this.heapSize] = x;
+            this.stamps[this.heapSize] = this.nextStamp;
+            siftUp(this.heap, this.stamps, this.heapSize, this.machineOrder);
+            this.heapSize++;
+        } else if (this.machineOrder.compare(x, this.heap[0]) < 0) {
+
+            //Full: x replaces the last entry kept, which is at the root and,
+            //of the entries equivalent to it, the latest added
+            this.heap[0] = x;
+            this.stamps[0] = this.nextStamp;
+            siftDown(this.heap, this.stamps, this.heapSize, this.machineOrder);
+        }
+        this.nextStamp++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Changes insertionMode boolean to false
+        this.insertionMode = false;
+
+        //Finishes the heap sort: repeatedly moves the last remaining entry,
+        //which is at the root, to the end of the shrinking heap
+        for (int size = this.heapSize - 1; size > 0; size--) {
+            T last = this.heap[0];
+            this.heap[0] = this.heap[size];
+            this.heap[size] = last;
+            long lastStamp = this.stamps[0];
+            this.stamps[0] = this.stamps[size];
+            this.stamps[size] = lastStamp;
+            siftDown(this.heap, this.stamps, size, this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //Entries are sorted, so the first one is next in line
+        T removed = this.heap[this.first];
+        this.heap[this.first] = null;
+        this.first++;
+
+        assert this.conventionHolds();
+
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.heapSize - this.first;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5bIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5b}.
+     */
+    private final class SortingMachine5bIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5bIterator() {
+            this.arrayCurrentIndex = SortingMachine5b.this.first;
+            assert SortingMachine5b.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            assert SortingMachine5b.this.conventionHolds();
+            return this.arrayCurrentIndex < SortingMachine5b.this.heapSize;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine5b.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine5b.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,433 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as a growable array that is sorted all at
+ * once by {@code changeToExtractionMode} (in parallel, when it is large
+ * enough), with implementations of primary methods.
+ *
+ * <p>
+ * Above {@code PARALLEL_THRESHOLD} entries the array is sorted by
+ * {@code Arrays.parallelSort}, a merge sort whose pieces run on the common
+ * {@code ForkJoinPool}; smaller arrays are not worth the hand-off and are
+ * sorted by {@code Arrays.sort} on the calling thread. Either way
+ * {@code removeFirst} is then O(1): it just advances an index.
+ * </p>
+ *
+ * <p>
+ * The sort is stable: entries that are equivalent under the order are
+ * removed in the order they were added. It is also adaptive: {@code add}
+ * counts the places where an entry comes before the one added just before
+ * it, so input that is already sorted is not sorted again, and input with
+ * few such descents (fewer than one in {@code NEARLY_SORTED_RATIO}) is sorted
+ * by {@code Arrays.sort}, a TimSort that merges the runs it finds in close to
+ * linear time, even above {@code PARALLEL_THRESHOLD}.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * 0 <= $this.first <= $this.length <= |$this.entries|  and
+ * [the entries of $this.entries in [$this.first, $this.length) are not null]  and
+ * [the other entries of $this.entries are null]  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and
+ *   $this.descents = |{i: integer where (0 < i < $this.length  and
+ *     not [($this.entries[i - 1], $this.entries[i]) is in the relation
+ *          computed by $this.machineOrder.compare method])}|
+ * else
+ *   [$this.entries[$this.first, $this.length) is sorted according to
+ *    the relation computed by $this.machineOrder.compare method]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first, $this.length)))
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class SortingMachine6<T> extends SortingMachineSecondary<T> {
+
+    /**
+     * Smallest number of entries sorted in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Entries per descent below which the entries count as nearly sorted.
+     */
+    public static final int NEARLY_SORTED_RATIO = 64;
+
+    /**
+     * Length of the array in a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries, in the order added (in insertion mode) or sorted (in extraction
+     * mode).
+     */
+    private T[] entries;
+
+    /**
+     * Index of the first entry not yet removed.
+     */
+    private int first;
+
+    /**
+     * Index just past the last entry.
+     */
+    private int length;
+
+    /**
+     * Number of entries that come before the entry added just before them.
+     */
+    private int descents;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * <p>
+     * Only the parts that take O(1) time are checked, since this is called
+     * from every method, including {@code add} and {@code removeFirst}, which
+     * are meant to take O(1) time; {@code entriesAreSorted} checks the order
+     * of the entries once, at the end of {@code changeToExtractionMode}.
+     * </p>
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.first <= $this.length <= |$this.entries|  and
+     * [the entries of $this.entries at $this.first and $this.length - 1, if
+     *  $this.first < $this.length, are not null]  and
+     * [the entries of $this.entries at $this.first - 1 and $this.length, if
+     *  they exist, are null]  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and
+     *   0 <= $this.descents < max($this.length, 1)
+     * else
+     *   $this.descents = 0
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.length : ""
+                + "Violation of: $this.first <= $this.length";
+        assert this.length <= this.entries.length : ""
+                + "Violation of: $this.length <= |$this.entries|";
+        if (this.first < this.length) {
+            assert this.entries[this.first] != null
+                    && this.entries[this.length - 1] != null : ""
+                            + "Violation of: [the entries of $this.entries in"
+                            + " [$this.first, $this.length) are not null]";
+        }
+        assert this.first == 0 || this.entries[this.first - 1] == null : ""
+                + "Violation of: [the other entries of $this.entries are null]";
+        assert this.length == this.entries.length
+                || this.entries[this.length] == null : ""
+                        + "Violation of: [the other entries of $this.entries"
+                        + " are null]";
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+            assert 0 <= this.descents
+                    && this.descents < Math.max(this.length, 1) : ""
+                            + "Violation of: if $this.insertionMode then"
+                            + " 0 <= $this.descents < max($this.length, 1)";
+        } else {
+            assert this.descents == 0 : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.descents = 0";
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the entries not yet removed are sorted, in O($this.length)
+     * time.
+     *
+     * @return true if they are (or if assertion checking is off); otherwise
+     *         reports a violated assertion
+     * @requires not $this.insertionMode
+     * @ensures <pre>
+     * entriesAreSorted = [$this.entries[$this.first, $this.length) is sorted
+     *   according to the relation computed by $this.machineOrder.compare
+     *   method]
+     * </pre>
+     */
+    private boolean entriesAreSorted() {
+        for (int i = this.first + 1; i < this.length; i++) {
+            assert this.machineOrder.compare(this.entries[i - 1],
+                    this.entries[i]) <= 0 : ""
+                            + "Violation of: if not $this.insertionMode"
+                            + " then [$this.entries[$this.first,"
+                            + " $this.length) is sorted]";
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.first = 0  and
+     * $this.length = 0  and
+     * $this.descents = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order) {
+
+        //Initializes global variables
+        this.machineOrder = order;
+        this.entries = (T[]) new Object[INITIAL_CAPACITY];
+        this.insertionMode = true;
+        this.first = 0;
+        this.length = 0;
+        this.descents = 0;
+
+    }
+
+    /**
+     * Reports whether {@code changeToExtractionMode}, if called now, would
+     * sort the entries with {@code Arrays.parallelSort}.
+     *
+     * @return true if the entries are not sorted, there are at least
+     *         {@code PARALLEL_THRESHOLD} of them, and they are not nearly
+     *         sorted
+     * @ensures <pre>
+     * sortsInParallel = ($this.descents > 0  and
+     *   $this.length >= PARALLEL_THRESHOLD  and
+     *   $this.descents >= $this.length / NEARLY_SORTED_RATIO)
+     * </pre>
+     */
+    final boolean sortsInParallel() {
+        return this.descents > 0 && this.length >= PARALLEL_THRESHOLD
+                && this.descents >= this.length / NEARLY_SORTED_RATIO;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine6(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine6<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine6<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine6<T> localSource = (SortingMachine6<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.entries = localSource.entries;
+        this.first = localSource.first;
+        this.length = localSource.length;
+        this.descents = localSource.descents;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Counts a descent if x comes before the entry added last
+        if (this.length > 0 && this.machineOrder
+                .compare(this.entries[this.length - 1], x) > 0) {
+            this.descents++;
+        }
+
+        //Doubles the array when it is full, then appends x
+        if (this.length == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.length);
+        }
+        this.entries[this.length] = x;
+        this.length++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Changes insertionMode boolean to false
+        this.insertionMode = false;
+
+        //Sorts all the entries at once, unless they already are: with the
+        //common ForkJoinPool when there are enough of them to make that pay
+        //and they are not nearly sorted, else with TimSort on this thread
+        if (this.sortsInParallel()) {
+            Arrays.parallelSort(this.entries, 0, this.length,
+                    this.machineOrder);
+        } else if (this.descents > 0) {
+            Arrays.sort(this.entries, 0, this.length, this.machineOrder);
+        }
+        this.descents = 0;
+
+        assert this.conventionHolds();
+        assert this.entriesAreSorted();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //Entries are sorted, so the first one is next in line
+        T removed = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+
+        assert this.conventionHolds();
+
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.length - this.first;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine6}.
+     */
+    private final class SortingMachine6Iterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine6Iterator() {
+            this.arrayCurrentIndex = SortingMachine6.this.first;
+            assert SortingMachine6.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            assert SortingMachine6.this.conventionHolds();
+            return this.arrayCurrentIndex < SortingMachine6.this.length;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine6.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine6.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
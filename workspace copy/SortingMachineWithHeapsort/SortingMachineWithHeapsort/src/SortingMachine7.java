@@ -0,0 +1,897 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that sorts more entries than fit in memory, by
+ * spilling sorted runs to temporary files and merging them during extraction
+ * (an external merge sort), with implementations of primary methods.
+ *
+ * <p>
+ * At most {@code runCapacity} entries are held in memory during insertion
+ * mode; each time that many have been added they are sorted and written, with
+ * the given {@code Codec}, to a new temporary file in the run directory
+ * given to the constructor (by default, {@code java.io.tmpdir}).
+ * {@code removeFirst} then
+ * performs a k-way merge of the run files (and of the entries still in
+ * memory), reading each file through a buffered stream, so only one entry per
+ * run is held in memory during extraction. A run file is deleted as soon as
+ * its last entry is removed; {@code clear}, {@code close} and
+ * {@code transferFrom} delete any that are left. As a safety net for a
+ * machine that is dropped without being emptied or closed, each run file is
+ * also registered with a {@code Cleaner}, which deletes it once its run
+ * becomes unreachable. ({@code File.deleteOnExit} is not used: it would keep
+ * every file name in memory until the JVM exits.)
+ * </p>
+ *
+ * <p>
+ * The in-memory buffer of {@code runCapacity} entries is allocated by the
+ * first {@code add}, and handed over to the merge as the last run by
+ * {@code changeToExtractionMode}, so an empty, cleared or closed machine
+ * holds no buffer.
+ * </p>
+ *
+ * <p>
+ * I/O errors are reported as {@code UncheckedIOException}s, since the
+ * {@code SortingMachine} methods cannot throw checked exceptions.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * $this.runCapacity >= 1  and
+ * if $this.buffer = null then
+ *   $this.bufferLength = 0
+ * else
+ *   0 <= $this.bufferLength <= |$this.buffer| = $this.runCapacity  and
+ *   [the entries of $this.buffer in [0, $this.bufferLength) are not null]  and
+ * [each run in $this.runs is sorted according to the relation computed by
+ *  $this.machineOrder.compare method]  and
+ * if $this.insertionMode then
+ *   [every run in $this.runs is an unopened file run]  and
+ *   $this.merge is empty  and
+ *   $this.size = $this.bufferLength + [sum of the lengths of $this.runs]
+ * else
+ *   $this.bufferLength = 0  and
+ *   $this.merge = [the runs in $this.runs with entries left]  and
+ *   $this.size = [sum of the numbers of entries left in $this.runs]
+ * </pre>
+ * @correspondence <pre>
+ * if $this.insertionMode then
+ *   this = (true, $this.machineOrder,
+ *           multiset_entries($this.buffer[0, $this.bufferLength)) union
+ *           [the multiset of entries of the runs in $this.runs])
+ * else
+ *   this = (false, $this.machineOrder,
+ *           [the multiset of entries left in the runs in $this.runs])
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class SortingMachine7<T> extends SortingMachineSecondary<T>
+        implements AutoCloseable {
+
+    /**
+     * Writes entries of type {@code T} to, and reads them back from, a run
+     * file.
+     *
+     * @param <T>
+     *            type of the entries
+     */
+    public interface Codec<T> {
+
+        /**
+         * Writes {@code x} to {@code out}.
+         *
+         * @param x
+         *            the entry to write
+         * @param out
+         *            the output
+         * @throws IOException
+         *             if the output fails
+         * @updates out
+         * @ensures [out has the encoding of x appended]
+         */
+        void write(T x, DataOutput out) throws IOException;
+
+        /**
+         * Reads an entry from {@code in}.
+         *
+         * @param in
+         *            the input
+         * @return the entry read
+         * @throws IOException
+         *             if the input fails
+         * @updates in
+         * @requires [in starts with the encoding of an entry]
+         * @ensures [read is the entry whose encoding was at the start of #in,
+         *          and in is #in without it]
+         */
+        T read(DataInput in) throws IOException;
+
+    }
+
+    /**
+     * Size in bytes of the buffer used for each run file stream.
+     */
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Prefix of the names of run files.
+     */
+    private static final String RUN_FILE_PREFIX = "SortingMachine7-";
+
+    /**
+     * Deletes the run files of runs that become unreachable without having
+     * been discarded.
+     */
+    private static final Cleaner RUN_FILE_CLEANER = Cleaner.create();
+
+    /**
+     * Returns a {@code Codec} for {@code String}s, in modified UTF-8 (so each
+     * one must encode to at most 65535 bytes).
+     *
+     * @return the codec
+     */
+    public static Codec<String> stringCodec() {
+        return new Codec<String>() {
+            @Override
+            public void write(String x, DataOutput out) throws IOException {
+                out.writeUTF(x);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Cleaning action that deletes a run file. It must not refer to its
+     * {@code Run}, or the run would never become unreachable.
+     */
+    private static final class RunFileDeleter implements Runnable {
+
+        /**
+         * The file to delete.
+         */
+        private final File file;
+
+        /**
+         * Constructor.
+         *
+         * @param file
+         *            the file to delete
+         */
+        private RunFileDeleter(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            this.file.delete();
+        }
+
+    }
+
+    /**
+     * A sorted run of entries, either in a file or in an array.
+     */
+    private final class Run {
+
+        /**
+         * File holding the run, or null for a run in memory.
+         */
+        private final File file;
+
+        /**
+         * Registration of the file with {@code RUN_FILE_CLEANER}, or null for
+         * a run in memory.
+         */
+        private final Cleaner.Cleanable fileCleanup;
+
+        /**
+         * Array holding the run, or null for a run in a file.
+         */
+        private final T[] array;
+
+        /**
+         * Number of entries in the run.
+         */
+        private final int length;
+
+        /**
+         * Number of entries read so far during extraction, including head.
+         */
+        private int position;
+
+        /**
+         * Entry read last and not yet removed, or null when there is none.
+         */
+        private T head;
+
+        /**
+         * Stream reading the file during extraction, or null.
+         */
+        private DataInputStream in;
+
+        /**
+         * Constructor.
+         *
+         * @param file
+         *            the file holding the run, or null
+         * @param array
+         *            the array holding the run, or null
+         * @param length
+         *            the number of entries in the run
+         */
+        private Run(File file, T[] array, int length) {
+            this.file = file;
+            if (file != null) {
+                this.fileCleanup = RUN_FILE_CLEANER.register(this,
+                        new RunFileDeleter(file));
+            } else {
+                this.fileCleanup = null;
+            }
+            this.array = array;
+            this.length = length;
+            this.position = 0;
+            this.head = null;
+            this.in = null;
+        }
+
+        /**
+         * Starts reading the run, making its first entry the head.
+         */
+        private void open() {
+            if (this.file != null) {
+                this.in = openRunFile(this.file);
+            }
+            this.advance();
+        }
+
+        /**
+         * Replaces the head with the next entry of the run, or with null if
+         * there is none; the file of a file run is deleted once it has been
+         * read to the end.
+         */
+        private void advance() {
+            if (this.array != null && this.position > 0) {
+                this.array[this.position - 1] = null;
+            }
+            if (this.position < this.length) {
+                if (this.file == null) {
+                    this.head = this.array[this.position];
+                } else {
+                    this.head = readEntry(this.in,
+                            SortingMachine7.this.codec);
+                }
+                this.position++;
+            } else {
+                this.head = null;
+                this.discard();
+            }
+        }
+
+        /**
+         * Closes the stream of this run, if open, and deletes its file, if
+         * any.
+         */
+        private void discard() {
+            if (this.in != null) {
+                try {
+                    this.in.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.in = null;
+            }
+            if (this.fileCleanup != null) {
+                this.fileCleanup.clean();
+            }
+        }
+
+    }
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Directory in which run files are created.
+     */
+    private File runDirectory;
+
+    /**
+     * Codec for entries in run files.
+     */
+    private Codec<T> codec;
+
+    /**
+     * Maximum number of entries held in memory during insertion mode.
+     */
+    private int runCapacity;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries not yet written to a run file.
+     */
+    private T[] buffer;
+
+    /**
+     * Number of entries in buffer.
+     */
+    private int bufferLength;
+
+    /**
+     * Runs, in the order they were made.
+     */
+    private ArrayList<Run> runs;
+
+    /**
+     * Runs with entries left during extraction, ordered by head.
+     */
+    private PriorityQueue<Run> merge;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Opens a run file for reading.
+     *
+     * @param file
+     *            the run file
+     * @return a buffered stream reading the file from its start
+     */
+    private static DataInputStream openRunFile(File file) {
+        try {
+            return new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file), STREAM_BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads an entry from a run file.
+     *
+     * @param <T>
+     *            type of the entry
+     * @param in
+     *            the stream reading the run file
+     * @param codec
+     *            the codec for entries
+     * @return the entry read
+     * @updates in
+     */
+    private static <T> T readEntry(DataInputStream in, Codec<T> codec) {
+        try {
+            return codec.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.runCapacity >= 1  and
+     * if $this.buffer = null then
+     *   $this.bufferLength = 0
+     * else
+     *   0 <= $this.bufferLength <= |$this.buffer| = $this.runCapacity  and
+     *   [the entries of $this.buffer in [0, $this.bufferLength) are not null]  and
+     * if $this.insertionMode then
+     *   $this.merge is empty  and
+     *   $this.size = $this.bufferLength + [sum of the lengths of $this.runs]
+     * else
+     *   $this.bufferLength = 0  and
+     *   $this.size = [sum of the numbers of entries left in $this.runs]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.runCapacity >= 1 : "Violation of: $this.runCapacity >= 1";
+        if (this.buffer == null) {
+            assert this.bufferLength == 0 : ""
+                    + "Violation of: if $this.buffer = null then"
+                    + " $this.bufferLength = 0";
+        } else {
+            assert this.buffer.length == this.runCapacity : ""
+                    + "Violation of: |$this.buffer| = $this.runCapacity";
+            assert 0 <= this.bufferLength : ""
+                    + "Violation of: 0 <= $this.bufferLength";
+            assert this.bufferLength <= this.buffer.length : ""
+                    + "Violation of: $this.bufferLength <= |$this.buffer|";
+            for (int i = 0; i < this.bufferLength; i++) {
+                assert this.buffer[i] != null : ""
+                        + "Violation of: [the entries of $this.buffer in"
+                        + " [0, $this.bufferLength) are not null]";
+            }
+        }
+        int count = this.bufferLength;
+        for (Run run : this.runs) {
+            if (this.insertionMode) {
+                count += run.length;
+            } else if (run.head != null) {
+                count += run.length - run.position + 1;
+            }
+        }
+        if (this.insertionMode) {
+            assert this.merge.isEmpty() : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.merge is empty";
+        } else {
+            assert this.bufferLength == 0 : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.bufferLength = 0";
+        }
+        assert this.size == count : ""
+                + "Violation of: $this.size = [number of entries in the"
+                + " buffer and the runs]";
+        /*
+         * Impractical to check that the runs in files are sorted.
+         */
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param entryCodec
+     *            codec for entries in run files
+     * @param capacity
+     *            maximum number of entries held in memory
+     * @param directory
+     *            directory in which run files are created
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * capacity >= 1
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.codec = entryCodec  and
+     * $this.runCapacity = capacity  and
+     * $this.runDirectory = directory  and
+     * $this.buffer = null  and
+     * $this.bufferLength = 0  and
+     * $this.runs = <>  and
+     * $this.size = 0
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order, Codec<T> entryCodec,
+            int capacity, File directory) {
+
+        //Initializes global variables; the buffer is allocated by add
+        this.machineOrder = order;
+        this.codec = entryCodec;
+        this.runCapacity = capacity;
+        this.runDirectory = directory;
+        this.insertionMode = true;
+        this.buffer = null;
+        this.bufferLength = 0;
+        this.runs = new ArrayList<Run>();
+        this.merge = new PriorityQueue<Run>(
+                (a, b) -> order.compare(a.head, b.head));
+        this.size = 0;
+
+    }
+
+    /**
+     * Closes and deletes every run file still in use.
+     *
+     * @updates $this.runs
+     */
+    private void discardRuns() {
+        for (Run run : this.runs) {
+            run.discard();
+        }
+    }
+
+    /**
+     * Sorts the entries in $this.buffer and writes them to a new run file.
+     *
+     * @updates $this.buffer, $this.bufferLength, $this.runs
+     * @ensures <pre>
+     * $this.bufferLength = 0  and
+     * $this.runs = #$this.runs * <[run holding #$this.buffer[0,
+     *   #$this.bufferLength), sorted]>
+     * </pre>
+     */
+    private void spill() {
+        Arrays.sort(this.buffer, 0, this.bufferLength, this.machineOrder);
+        File file;
+        try {
+            file = File.createTempFile(RUN_FILE_PREFIX, ".run",
+                    this.runDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file),
+                        STREAM_BUFFER_SIZE))) {
+            for (int i = 0; i < this.bufferLength; i++) {
+                this.codec.write(this.buffer[i], out);
+            }
+        } catch (IOException e) {
+            //The run is not recorded, so nothing else would delete the file
+            file.delete();
+            throw new UncheckedIOException(e);
+        }
+        this.runs.add(new Run(file, null, this.bufferLength));
+        Arrays.fill(this.buffer, 0, this.bufferLength, null);
+        this.bufferLength = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order, codec and run capacity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param codec
+     *            codec for entries in run files
+     * @param runCapacity
+     *            maximum number of entries held in memory during insertion
+     *            mode
+     * @requires runCapacity >= 1
+     */
+    public SortingMachine7(Comparator<T> order, Codec<T> codec,
+            int runCapacity) {
+        this(order, codec, runCapacity,
+                new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Constructor from order, codec, run capacity and run directory.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param codec
+     *            codec for entries in run files
+     * @param runCapacity
+     *            maximum number of entries held in memory during insertion
+     *            mode
+     * @param runDirectory
+     *            existing directory in which run files are created
+     * @requires runCapacity >= 1
+     */
+    public SortingMachine7(Comparator<T> order, Codec<T> codec,
+            int runCapacity, File runDirectory) {
+        assert codec != null : "Violation of: codec is not null";
+        assert runCapacity >= 1 : "Violation of: runCapacity >= 1";
+        assert runDirectory != null : "Violation of: runDirectory is not null";
+        this.createNewRep(order, codec, runCapacity, runDirectory);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, Codec.class, int.class,
+                            File.class)
+                    .newInstance(this.machineOrder, this.codec,
+                            this.runCapacity, this.runDirectory);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.discardRuns();
+        this.createNewRep(this.machineOrder, this.codec, this.runCapacity,
+                this.runDirectory);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine7<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine7<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine7<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine7<T> localSource = (SortingMachine7<T>) source;
+        this.discardRuns();
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.codec = localSource.codec;
+        this.runCapacity = localSource.runCapacity;
+        this.runDirectory = localSource.runDirectory;
+        this.buffer = localSource.buffer;
+        this.bufferLength = localSource.bufferLength;
+        this.runs = localSource.runs;
+        this.merge = localSource.merge;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder, localSource.codec,
+                localSource.runCapacity, localSource.runDirectory);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /**
+     * Deletes the run files of {@code this}, as {@code clear} does.
+     *
+     * @clears this
+     */
+    @Override
+    public final void close() {
+        this.clear();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Allocates the buffer on the first add, or writes it out as a run
+        //when it is full, then adds x to it
+        if (this.buffer == null) {
+            this.buffer = (T[]) new Object[this.runCapacity];
+        } else if (this.bufferLength == this.runCapacity) {
+            this.spill();
+        }
+        this.buffer[this.bufferLength] = x;
+        this.bufferLength++;
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Changes insertionMode boolean to false
+        this.insertionMode = false;
+
+        //The entries still in the buffer become one more run, kept in memory;
+        //the buffer itself is handed over, since no more entries are added
+        if (this.bufferLength > 0) {
+            Arrays.sort(this.buffer, 0, this.bufferLength, this.machineOrder);
+            this.runs.add(new Run(null, this.buffer, this.bufferLength));
+            this.bufferLength = 0;
+        }
+        this.buffer = null;
+
+        //Reads the first entry of every run, ready for the merge
+        for (Run run : this.runs) {
+            run.open();
+            if (run.head != null) {
+                this.merge.add(run);
+            }
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //Takes the head of the run whose head comes first, and puts the run
+        //back in the merge if it has entries left
+        Run run = this.merge.poll();
+        T removed = run.head;
+        run.advance();
+        if (run.head != null) {
+            this.merge.add(run);
+        }
+        this.size--;
+
+        assert this.conventionHolds();
+
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine7Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine7}; it reads run files through streams of its own,
+     * which are closed once they are read to the end.
+     */
+    private final class SortingMachine7Iterator implements Iterator<T> {
+
+        /**
+         * Index in runs of the run being read, or runs.size() for the buffer.
+         */
+        private int runIndex;
+
+        /**
+         * Index in the current run (or buffer) of the next entry.
+         */
+        private int index;
+
+        /**
+         * Index in the current run (or buffer) just past its last entry.
+         */
+        private int stop;
+
+        /**
+         * Stream reading the current run, if it is in a file.
+         */
+        private DataInputStream in;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine7Iterator() {
+            this.runIndex = -1;
+            this.index = 0;
+            this.stop = 0;
+            this.in = null;
+            this.skipToEntry();
+            assert SortingMachine7.this.conventionHolds();
+        }
+
+        /**
+         * Moves on to the next run (or the buffer) as long as the current one
+         * has no entries left to visit, opening a stream for a run in a file
+         * and skipping the entries already removed from it.
+         */
+        private void skipToEntry() {
+            ArrayList<Run> runList = SortingMachine7.this.runs;
+            while (this.index == this.stop
+                    && this.runIndex < runList.size()) {
+                this.closeStream();
+                this.runIndex++;
+                if (this.runIndex < runList.size()) {
+                    Run run = runList.get(this.runIndex);
+                    this.stop = run.length;
+                    this.index = run.length;
+                    if (SortingMachine7.this.insertionMode) {
+                        this.index = 0;
+                    } else if (run.head != null) {
+                        this.index = run.position - 1;
+                    }
+                    if (run.file != null && this.index < this.stop) {
+                        this.in = openRunFile(run.file);
+                        for (int i = 0; i < this.index; i++) {
+                            readEntry(this.in, SortingMachine7.this.codec);
+                        }
+                    }
+                } else {
+                    this.index = 0;
+                    this.stop = SortingMachine7.this.bufferLength;
+                }
+            }
+        }
+
+        /**
+         * Closes the stream reading the current run, if any.
+         */
+        private void closeStream() {
+            if (this.in != null) {
+                try {
+                    this.in.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.in = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            assert SortingMachine7.this.conventionHolds();
+            return this.index < this.stop;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            ArrayList<Run> runList = SortingMachine7.this.runs;
+            T next;
+            if (this.runIndex == runList.size()) {
+                next = SortingMachine7.this.buffer[this.index];
+            } else if (this.in == null) {
+                next = runList.get(this.runIndex).array[this.index];
+            } else {
+                next = readEntry(this.in, SortingMachine7.this.codec);
+            }
+            this.index++;
+            this.skipToEntry();
+            assert SortingMachine7.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
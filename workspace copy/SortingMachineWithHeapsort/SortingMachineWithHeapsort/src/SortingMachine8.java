@@ -0,0 +1,612 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as a pairing heap, with implementations
+ * of primary methods and of the priority queue operations {@code insert},
+ * {@code decreaseKey} and {@code meld}.
+ *
+ * <p>
+ * Besides the {@code SortingMachine} methods, whose contracts are unchanged,
+ * this class lets a client use the machine as a mergeable priority queue:
+ * {@code insert} adds an entry in either mode (so it may be interleaved with
+ * {@code removeFirst}) and returns a {@code Handle} to it, {@code decreaseKey}
+ * replaces the entry behind a handle with one that comes no later in the
+ * order, and {@code meld} moves all the entries of another
+ * {@code SortingMachine8} into this one. {@code insert}, {@code decreaseKey}
+ * and {@code meld} are O(1); {@code removeFirst} is O(log n) amortized.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_PAIRING_HEAP (
+ *   n: Handle,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [n is null, or the tree rooted at n (with children linked through child and
+ *   sibling, and prev linking back to the parent of a first child and to the
+ *   previous sibling of any other child) has every entry related by r to the
+ *   entries of all its children, and all its nodes are in the heap]
+ *
+ * TREE_ENTRIES (
+ *   n: Handle
+ *  ) : finite multiset of T is
+ *  [the multiset of entries of the nodes of the tree rooted at n]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * IS_PAIRING_HEAP($this.root,
+ *     [relation computed by $this.machineOrder.compare method])  and
+ * ($this.root = null  or
+ *  ($this.root.prev = null  and  $this.root.sibling = null))  and
+ * $this.size = |TREE_ENTRIES($this.root)|
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder, TREE_ENTRIES($this.root))
+ * </pre>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public class SortingMachine8<T> extends SortingMachineSecondary<T> {
+
+    /**
+     * Reference to an entry of a {@code SortingMachine8}, returned by
+     * {@code insert} and used by {@code decreaseKey}; it is also the node of
+     * the pairing heap holding that entry.
+     *
+     * @param <T>
+     *            type of the entry
+     */
+    public static final class Handle<T> {
+
+        /**
+         * Entry.
+         */
+        private T entry;
+
+        /**
+         * First child, or null.
+         */
+        private Handle<T> child;
+
+        /**
+         * Next sibling, or null.
+         */
+        private Handle<T> sibling;
+
+        /**
+         * Parent, if this is a first child; previous sibling otherwise; null
+         * for a root.
+         */
+        private Handle<T> prev;
+
+        /**
+         * Whether this entry is still in a machine.
+         */
+        private boolean inHeap;
+
+        /**
+         * Constructor.
+         *
+         * @param x
+         *            the entry
+         */
+        private Handle(T x) {
+            this.entry = x;
+            this.child = null;
+            this.sibling = null;
+            this.prev = null;
+            this.inHeap = true;
+        }
+
+        /**
+         * Reports the entry this handle refers to.
+         *
+         * @return the entry
+         */
+        public T entry() {
+            return this.entry;
+        }
+
+        /**
+         * Reports whether the entry is still in a machine (it is not once
+         * {@code removeFirst} has returned it).
+         *
+         * @return true iff the entry has not been removed
+         */
+        public boolean isInMachine() {
+            return this.inHeap;
+        }
+
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Root of the pairing heap, or null.
+     */
+    private Handle<T> root;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Links two trees, making the root whose entry comes later the first child
+     * of the other.
+     *
+     * @param a
+     *            the root of the first tree
+     * @param b
+     *            the root of the second tree
+     * @return the root of the linked tree
+     * @requires <pre>
+     * a and b are roots of disjoint pairing heaps  and
+     * a.prev = a.sibling = b.prev = b.sibling = null
+     * </pre>
+     * @ensures <pre>
+     * [link is the root of a pairing heap with the nodes of both trees]
+     * </pre>
+     */
+    private Handle<T> link(Handle<T> a, Handle<T> b) {
+        Handle<T> top = a;
+        Handle<T> below = b;
+        if (this.machineOrder.compare(b.entry, a.entry) < 0) {
+            top = b;
+            below = a;
+        }
+        below.prev = top;
+        below.sibling = top.child;
+        if (top.child != null) {
+            top.child.prev = below;
+        }
+        top.child = below;
+        return top;
+    }
+
+    /**
+     * Cuts the subtree rooted at {@code n} out of the tree it is in.
+     *
+     * @param <T>
+     *            type of the entries
+     * @param n
+     *            the root of the subtree
+     * @updates n
+     * @requires n is a node of the heap other than its root
+     * @ensures n.prev = null  and  n.sibling = null
+     */
+    private static <T> void detach(Handle<T> n) {
+        if (n.prev.child == n) {
+            n.prev.child = n.sibling;
+        } else {
+            n.prev.sibling = n.sibling;
+        }
+        if (n.sibling != null) {
+            n.sibling.prev = n.prev;
+        }
+        n.prev = null;
+        n.sibling = null;
+    }
+
+    /**
+     * Combines the children of a removed root into one tree, by the usual
+     * two passes: link them in pairs from first to last, then link the pairs
+     * from last to first.
+     *
+     * @param first
+     *            the first child, or null
+     * @return the root of the combined tree, or null if there are no children
+     * @requires [first and its siblings are roots of pairing heaps]
+     * @ensures [combineSiblings is the root of a pairing heap with all their
+     *          nodes, with null prev and sibling]
+     */
+    private Handle<T> combineSiblings(Handle<T> first) {
+        Handle<T> pairs = null;
+        Handle<T> next = first;
+
+        //First pass: links each pair, stacking the results through sibling
+        while (next != null) {
+            Handle<T> a = next;
+            Handle<T> b = a.sibling;
+            next = null;
+            if (b != null) {
+                next = b.sibling;
+                b.sibling = null;
+                b.prev = null;
+            }
+            a.sibling = null;
+            a.prev = null;
+            if (b != null) {
+                a = this.link(a, b);
+            }
+            a.sibling = pairs;
+            pairs = a;
+        }
+
+        //Second pass: links the stacked pairs, last pair first
+        Handle<T> result = pairs;
+        if (pairs != null) {
+            pairs = pairs.sibling;
+            result.sibling = null;
+            while (pairs != null) {
+                Handle<T> rest = pairs.sibling;
+                pairs.sibling = null;
+                result = this.link(pairs, result);
+                pairs = rest;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * IS_PAIRING_HEAP($this.root,
+     *     [relation computed by $this.machineOrder.compare method])  and
+     * ($this.root = null  or
+     *  ($this.root.prev = null  and  $this.root.sibling = null))  and
+     * $this.size = |TREE_ENTRIES($this.root)|
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        int count = 0;
+        if (this.root != null) {
+            assert this.root.prev == null && this.root.sibling == null : ""
+                    + "Violation of: $this.root.prev = null  and"
+                    + "  $this.root.sibling = null";
+            Deque<Handle<T>> pending = new ArrayDeque<Handle<T>>();
+            pending.push(this.root);
+            while (!pending.isEmpty()) {
+                Handle<T> n = pending.pop();
+                count++;
+                assert n.inHeap : "Violation of: [all nodes are in the heap]";
+                Handle<T> back = n;
+                for (Handle<T> c = n.child; c != null; c = c.sibling) {
+                    assert c.prev == back : ""
+                            + "Violation of: [prev links are consistent]";
+                    assert this.machineOrder.compare(n.entry, c.entry) <= 0 : ""
+                            + "Violation of: IS_PAIRING_HEAP($this.root,"
+                            + " [relation computed by"
+                            + " $this.machineOrder.compare method])";
+                    pending.push(c);
+                    back = c;
+                }
+            }
+        }
+        assert this.size == count : ""
+                + "Violation of: $this.size = |TREE_ENTRIES($this.root)|";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.root = null  and
+     * $this.size = 0
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order) {
+
+        //Initializes global variables
+        this.machineOrder = order;
+        this.insertionMode = true;
+        this.root = null;
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine8(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine8<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine8<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine8<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine8<T> localSource = (SortingMachine8<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.root = localSource.root;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insert(x);
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //The heap is always ready for extraction; only the mode changes
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //Takes the root's entry, and combines its children into the new heap
+        Handle<T> removed = this.root;
+        this.root = this.combineSiblings(removed.child);
+        removed.child = null;
+        removed.inHeap = false;
+        this.size--;
+
+        assert this.conventionHolds();
+
+        return removed.entry;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    /*
+     * Priority queue methods -------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}, in either mode.
+     *
+     * @param x
+     *            the element to be added
+     * @return a handle to the added entry
+     * @aliases reference x
+     * @updates this.contents
+     * @ensures <pre>
+     * this.contents = #this.contents union {x}  and
+     * insert.entry = x
+     * </pre>
+     */
+    public final Handle<T> insert(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        //Links a one-node tree with the heap
+        Handle<T> n = new Handle<T>(x);
+        if (this.root == null) {
+            this.root = n;
+        } else {
+            this.root = this.link(this.root, n);
+        }
+        this.size++;
+
+        assert this.conventionHolds();
+
+        return n;
+    }
+
+    /**
+     * Replaces the entry behind {@code h} with {@code x}, which comes no later
+     * in the order.
+     *
+     * @param h
+     *            the handle of the entry to replace
+     * @param x
+     *            the replacement entry
+     * @aliases reference x
+     * @updates this.contents
+     * @requires <pre>
+     * [h was returned by insert on this, or on a machine since melded into
+     *  this, and this has not been cleared since]  and
+     * h.isInMachine()  and
+     * [(x, h.entry) is in the relation computed by this.ordering.compare]
+     * </pre>
+     * @ensures <pre>
+     * this.contents = (#this.contents \ {#h.entry}) union {x}  and
+     * h.entry = x
+     * </pre>
+     */
+    public final void decreaseKey(Handle<T> h, T x) {
+        assert h != null : "Violation of: h is not null";
+        assert x != null : "Violation of: x is not null";
+        assert h.inHeap : "Violation of: h.isInMachine()";
+        assert this.machineOrder.compare(x, h.entry) <= 0 : ""
+                + "Violation of: [(x, h.entry) is in the relation computed"
+                + " by this.ordering.compare]";
+
+        //Cuts h's subtree out, which is still a heap, and links it back in
+        h.entry = x;
+        if (h != this.root) {
+            detach(h);
+            this.root = this.link(this.root, h);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Moves all the entries of {@code other} into {@code this}; handles to
+     * them stay valid, and now refer to entries of {@code this}.
+     *
+     * @param other
+     *            the machine whose entries are moved
+     * @updates this.contents
+     * @clears other
+     * @requires <pre>
+     * other is not this  and
+     * [other.ordering is the same relation as this.ordering]
+     * </pre>
+     * @ensures this.contents = #this.contents union #other.contents
+     */
+    public final void meld(SortingMachine8<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        //Links the two roots; other is left empty, in its original mode
+        if (this.root == null) {
+            this.root = other.root;
+        } else if (other.root != null) {
+            this.root = this.link(this.root, other.root);
+        }
+        this.size += other.size;
+        boolean otherMode = other.insertionMode;
+        other.createNewRep(other.machineOrder);
+        other.insertionMode = otherMode;
+
+        assert this.conventionHolds();
+        assert other.conventionHolds();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine8Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine8}; it visits the nodes of the heap depth first.
+     */
+    private final class SortingMachine8Iterator implements Iterator<T> {
+
+        /**
+         * Nodes whose subtrees have yet to be visited.
+         */
+        private final Deque<Handle<T>> pending;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine8Iterator() {
+            this.pending = new ArrayDeque<Handle<T>>();
+            if (SortingMachine8.this.root != null) {
+                this.pending.push(SortingMachine8.this.root);
+            }
+            assert SortingMachine8.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            assert SortingMachine8.this.conventionHolds();
+            return !this.pending.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Handle<T> n = this.pending.pop();
+            for (Handle<T> c = n.child; c != null; c = c.sibling) {
+                this.pending.push(c);
+            }
+            assert SortingMachine8.this.conventionHolds();
+            return n.entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,270 @@
+/**
+ * Counters describing the work done by a {@code SortingMachine}: comparator
+ * calls, swaps and sift-downs (for heap-based machines that report them), and
+ * time spent in {@code add}, {@code changeToExtractionMode} and
+ * {@code removeFirst}.
+ *
+ * <p>
+ * An {@code InstrumentedSortingMachine} fills one in for any
+ * {@code SortingMachine}; a {@code SortingMachine5a} given one through
+ * {@code setStats} also reports its swaps and sift-downs.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class SortingMachineStats {
+
+    /**
+     * Comparator calls.
+     */
+    private long comparisons;
+
+    /**
+     * Entries exchanged, counting each level an entry moves in a sift-down
+     * as one exchange with the child that moves up in its place.
+     */
+    private long swaps;
+
+    /**
+     * Sift-downs performed.
+     */
+    private long siftDowns;
+
+    /**
+     * Levels moved down, over all sift-downs.
+     */
+    private long siftLevels;
+
+    /**
+     * Most levels moved down by one sift-down.
+     */
+    private int maxSiftDepth;
+
+    /**
+     * Calls to {@code add}.
+     */
+    private long adds;
+
+    /**
+     * Calls to {@code removeFirst}.
+     */
+    private long removals;
+
+    /**
+     * Nanoseconds spent in {@code add}.
+     */
+    private long addNanos;
+
+    /**
+     * Nanoseconds spent in {@code changeToExtractionMode}.
+     */
+    private long changeNanos;
+
+    /**
+     * Nanoseconds spent in {@code removeFirst}.
+     */
+    private long removeFirstNanos;
+
+    /**
+     * No-argument constructor; all counters start at 0.
+     */
+    public SortingMachineStats() {
+        this.reset();
+    }
+
+    /**
+     * Sets all counters to 0.
+     */
+    public void reset() {
+        this.comparisons = 0;
+        this.swaps = 0;
+        this.siftDowns = 0;
+        this.siftLevels = 0;
+        this.maxSiftDepth = 0;
+        this.adds = 0;
+        this.removals = 0;
+        this.addNanos = 0;
+        this.changeNanos = 0;
+        this.removeFirstNanos = 0;
+    }
+
+    /**
+     * Records one comparator call.
+     */
+    public void countComparison() {
+        this.comparisons++;
+    }
+
+    /**
+     * Records one exchange of entries.
+     */
+    public void countSwap() {
+        this.swaps++;
+    }
+
+    /**
+     * Records {@code count} exchanges of entries.
+     *
+     * @param count
+     *            the number of exchanges
+     * @requires count >= 0
+     */
+    public void countSwaps(int count) {
+        assert count >= 0 : "Violation of: count >= 0";
+        this.swaps += count;
+    }
+
+    /**
+     * Records one sift-down that moved an entry {@code levels} levels down.
+     *
+     * @param levels
+     *            the number of levels moved
+     * @requires levels >= 0
+     */
+    public void countSiftDown(int levels) {
+        assert levels >= 0 : "Violation of: levels >= 0";
+        this.siftDowns++;
+        this.siftLevels += levels;
+        this.maxSiftDepth = Math.max(this.maxSiftDepth, levels);
+    }
+
+    /**
+     * Records one call to {@code add} that took {@code nanos} nanoseconds.
+     *
+     * @param nanos
+     *            the time taken
+     */
+    public void countAdd(long nanos) {
+        this.adds++;
+        this.addNanos += nanos;
+    }
+
+    /**
+     * Records one call to {@code changeToExtractionMode} that took
+     * {@code nanos} nanoseconds.
+     *
+     * @param nanos
+     *            the time taken
+     */
+    public void countChangeToExtractionMode(long nanos) {
+        this.changeNanos += nanos;
+    }
+
+    /**
+     * Records one call to {@code removeFirst} that took {@code nanos}
+     * nanoseconds.
+     *
+     * @param nanos
+     *            the time taken
+     */
+    public void countRemoveFirst(long nanos) {
+        this.removals++;
+        this.removeFirstNanos += nanos;
+    }
+
+    /**
+     * Reports the number of comparator calls.
+     *
+     * @return the number of comparator calls
+     */
+    public long comparisons() {
+        return this.comparisons;
+    }
+
+    /**
+     * Reports the number of exchanges of entries, including one for each
+     * level moved by a sift-down.
+     *
+     * @return the number of swaps
+     */
+    public long swaps() {
+        return this.swaps;
+    }
+
+    /**
+     * Reports the number of sift-downs.
+     *
+     * @return the number of sift-downs
+     */
+    public long siftDowns() {
+        return this.siftDowns;
+    }
+
+    /**
+     * Reports the total number of levels moved by sift-downs.
+     *
+     * @return the number of levels
+     */
+    public long siftLevels() {
+        return this.siftLevels;
+    }
+
+    /**
+     * Reports the most levels moved by one sift-down.
+     *
+     * @return the largest sift depth
+     */
+    public int maxSiftDepth() {
+        return this.maxSiftDepth;
+    }
+
+    /**
+     * Reports the number of calls to {@code add}.
+     *
+     * @return the number of adds
+     */
+    public long adds() {
+        return this.adds;
+    }
+
+    /**
+     * Reports the number of calls to {@code removeFirst}.
+     *
+     * @return the number of removals
+     */
+    public long removals() {
+        return this.removals;
+    }
+
+    /**
+     * Reports the time spent in {@code add}.
+     *
+     * @return the time in nanoseconds
+     */
+    public long addNanos() {
+        return this.addNanos;
+    }
+
+    /**
+     * Reports the time spent in {@code changeToExtractionMode}.
+     *
+     * @return the time in nanoseconds
+     */
+    public long changeToExtractionModeNanos() {
+        return this.changeNanos;
+    }
+
+    /**
+     * Reports the time spent in {@code removeFirst}.
+     *
+     * @return the time in nanoseconds
+     */
+    public long removeFirstNanos() {
+        return this.removeFirstNanos;
+    }
+
+    @Override
+    public String toString() {
+        final long nanosPerMilli = 1_000_000;
+        return "comparisons=" + this.comparisons + ", swaps=" + this.swaps
+                + ", siftDowns=" + this.siftDowns + ", siftLevels="
+                + this.siftLevels + ", maxSiftDepth=" + this.maxSiftDepth
+                + ", adds=" + this.adds + " (" + this.addNanos / nanosPerMilli
+                + " ms), changeToExtractionMode="
+                + this.changeNanos / nanosPerMilli + " ms, removals="
+                + this.removals + " ("
+                + this.removeFirstNanos / nanosPerMilli + " ms)";
+    }
+
+}
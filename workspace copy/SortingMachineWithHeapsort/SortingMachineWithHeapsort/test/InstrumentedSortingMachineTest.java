@@ -0,0 +1,97 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code InstrumentedSortingMachine}.
+ */
+public final class InstrumentedSortingMachineTest extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new InstrumentedSortingMachine<String>(order,
+                SortingMachine5a::new);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * test the statistics recorded for a wrapped {@code SortingMachine5a}.
+     */
+    @Test
+    public void testStatsForSortingMachine5a() {
+        InstrumentedSortingMachine<String> m;
+        m = new InstrumentedSortingMachine<String>(String::compareTo,
+                SortingMachine5a::new);
+        SortingMachine5a.Checking saved = SortingMachine5a.checking();
+        SortingMachine5a.setChecking(SortingMachine5a.Checking.OFF);
+        try {
+            m.add("d");
+            m.add("b");
+            m.add("e");
+            m.add("a");
+            m.add("c");
+            m.changeToExtractionMode();
+            SortingMachineStats stats = m.stats();
+            assertEquals(5, stats.adds());
+            long heapifyComparisons = stats.comparisons();
+            assertTrue(heapifyComparisons > 0);
+            assertEquals(2, stats.siftDowns());
+            /*
+             * Heapifying <d, b, e, a, c> moves b down one level and d down
+             * two
+             */
+            assertEquals(3, stats.swaps());
+            assertEquals("a", m.removeFirst());
+            assertEquals("b", m.removeFirst());
+            assertEquals(2, stats.removals());
+            /*
+             * Each removal exchanges the root with the last entry, and then
+             * sifts the new root down one level
+             */
+            assertEquals(3 + 2 + 2, stats.swaps());
+            assertEquals(stats.swaps() - stats.removals(), stats.siftLevels());
+            assertEquals(4, stats.siftDowns());
+            assertTrue(stats.comparisons() > heapifyComparisons);
+            assertTrue(stats.maxSiftDepth() <= 2);
+            stats.reset();
+            assertEquals(0, stats.comparisons());
+        } finally {
+            SortingMachine5a.setChecking(saved);
+        }
+    }
+
+    /**
+     * test that transferFrom records later work in the receiving machine's
+     * statistics.
+     */
+    @Test
+    public void testTransferFromKeepsStats() {
+        InstrumentedSortingMachine<String> m;
+        m = new InstrumentedSortingMachine<String>(String::compareTo,
+                SortingMachine5a::new);
+        InstrumentedSortingMachine<String> n;
+        n = new InstrumentedSortingMachine<String>(String::compareTo,
+                SortingMachine5a::new);
+        m.add("b");
+        m.add("a");
+        n.transferFrom(m);
+        m.stats().reset();
+        n.changeToExtractionMode();
+        assertEquals("a", n.removeFirst());
+        assertEquals(0, m.stats().removals());
+        assertEquals(0, m.stats().comparisons());
+        assertEquals(1, n.stats().removals());
+        assertTrue(n.stats().comparisons() > 0);
+    }
+
+}
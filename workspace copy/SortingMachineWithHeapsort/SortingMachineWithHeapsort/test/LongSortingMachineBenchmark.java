@@ -0,0 +1,117 @@
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Times sorting pseudo-random {@code int} keys with a
+ * {@code LongSortingMachine} and, with boxed {@code Long}s, with a
+ * {@code SortingMachine5a}: adding them all, changing to extraction mode, and
+ * removing them all.
+ *
+ * <p>
+ * Run with assertion checking off, and with a heap large enough for the boxed
+ * keys.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class LongSortingMachineBenchmark {
+
+    /**
+     * Number of keys sorted per run.
+     */
+    private static final int KEYS = 10_000_000;
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 4;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private LongSortingMachineBenchmark() {
+    }
+
+    /**
+     * Sorts {@code keys} with a {@code LongSortingMachine}.
+     *
+     * @param keys
+     *            the keys
+     * @return a value depending on the extraction order, to keep the JIT
+     *         honest
+     */
+    private static long sortPrimitive(int[] keys) {
+        LongSortingMachine<Object> m = new LongSortingMachine<Object>();
+        for (int k : keys) {
+            m.add(k);
+        }
+        m.changeToExtractionMode();
+        long check = 0;
+        long position = 0;
+        while (m.size() > 0) {
+            check += position * m.removeFirst();
+            position++;
+        }
+        return check;
+    }
+
+    /**
+     * Sorts {@code keys}, boxed, with a {@code SortingMachine5a}.
+     *
+     * @param keys
+     *            the keys
+     * @return a value depending on the extraction order, to keep the JIT
+     *         honest
+     */
+    private static long sortBoxed(int[] keys) {
+        SortingMachine<Long> m = new SortingMachine5a<Long>(Long::compare);
+        for (int k : keys) {
+            m.add((long) k);
+        }
+        m.changeToExtractionMode();
+        long check = 0;
+        long position = 0;
+        while (m.size() > 0) {
+            check += position * m.removeFirst();
+            position++;
+        }
+        return check;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        final long seed = 42;
+        Random random = new Random(seed);
+        int[] keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        long check = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            check += sortPrimitive(keys);
+            long primitiveMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            check -= sortBoxed(keys);
+            long boxedMillis = (System.nanoTime() - start) / 1_000_000;
+            out.println("round " + round + ": LongSortingMachine "
+                    + primitiveMillis + " ms;  SortingMachine5a<Long> "
+                    + boxedMillis + " ms");
+        }
+        out.println("(checksum, should be 0: " + check + ")");
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,133 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code LongSortingMachine}.
+ */
+public final class LongSortingMachineTest {
+
+    /**
+     * Adds {@code keys} to a new {@code LongSortingMachine}, switches it to
+     * extraction mode, and checks that it removes them in sorted order.
+     *
+     * @param keys
+     *            the keys
+     */
+    private static void checkSorted(long... keys) {
+        LongSortingMachine<String> m = new LongSortingMachine<String>();
+        for (long k : keys) {
+            m.add(k);
+        }
+        assertEquals(keys.length, m.size());
+        m.changeToExtractionMode();
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+        for (long k : expected) {
+            assertEquals(k, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test constructor.
+     */
+    @Test
+    public void testConstructor() {
+        LongSortingMachine<String> m = new LongSortingMachine<String>();
+        assertTrue(m.isInInsertionMode());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test with no entries and with one.
+     */
+    @Test
+    public void testEmptyAndSingle() {
+        checkSorted();
+        checkSorted(-7);
+    }
+
+    /**
+     * test with small non-negative keys.
+     */
+    @Test
+    public void testSmallKeys() {
+        checkSorted(5, 3, 9, 0, 3, 255, 256, 1, 65_536);
+    }
+
+    /**
+     * test with negative keys and the extremes of long.
+     */
+    @Test
+    public void testSignedExtremes() {
+        checkSorted(Long.MAX_VALUE, -1, 0, Long.MIN_VALUE, 1,
+                -1_000_000_000_000L, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                Long.MIN_VALUE + 1);
+    }
+
+    /**
+     * test with many pseudo-random int keys.
+     */
+    @Test
+    public void testManyIntKeys() {
+        final int count = 5000;
+        final long multiplier = 6_364_136_223_846_793_005L;
+        long[] keys = new long[count];
+        long seed = 1;
+        for (int i = 0; i < count; i++) {
+            seed = seed * multiplier + 1;
+            keys[i] = (int) (seed >>> Integer.SIZE);
+        }
+        checkSorted(keys);
+    }
+
+    /**
+     * test that payloads follow their keys, and equal keys keep their order.
+     */
+    @Test
+    public void testPayloadsStable() {
+        LongSortingMachine<String> m = new LongSortingMachine<String>();
+        m.add(300, "c");
+        m.add(-2, "a");
+        m.add(300, "d");
+        m.add(7);
+        m.add(300, "e");
+        m.changeToExtractionMode();
+        assertFalse(m.isInInsertionMode());
+        assertEquals("a", m.firstPayload());
+        assertEquals(-2, m.removeFirst());
+        assertEquals(null, m.firstPayload());
+        assertEquals(7, m.removeFirst());
+        assertEquals("c", m.firstPayload());
+        assertEquals(300, m.removeFirst());
+        assertEquals("d", m.firstPayload());
+        assertEquals(300, m.removeFirst());
+        assertEquals("e", m.firstPayload());
+        assertEquals(300, m.removeFirst());
+    }
+
+    /**
+     * test clear and transferFrom.
+     */
+    @Test
+    public void testClearAndTransferFrom() {
+        LongSortingMachine<String> m = new LongSortingMachine<String>();
+        LongSortingMachine<String> n = new LongSortingMachine<String>();
+        m.add(2, "b");
+        m.add(1, "a");
+        m.changeToExtractionMode();
+        n.transferFrom(m);
+        assertTrue(m.isInInsertionMode());
+        assertEquals(0, m.size());
+        assertEquals("a", n.firstPayload());
+        n.clear();
+        assertTrue(n.isInInsertionMode());
+        assertEquals(0, n.size());
+    }
+
+}
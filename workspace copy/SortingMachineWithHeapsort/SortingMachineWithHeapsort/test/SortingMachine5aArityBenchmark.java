@@ -0,0 +1,101 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Times filling a {@code SortingMachine5a} with pseudo-random
+ * {@code Integer}s, changing to extraction mode, and removing every entry,
+ * for heap arities 2, 4 and 8.
+ *
+ * <p>
+ * Run with assertion checking off.
+ * </p>
+ *
+ * @author Akshay Anand and Alexander Nistor
+ *
+ */
+public final class SortingMachine5aArityBenchmark {
+
+    /**
+     * Number of entries sorted per run.
+     */
+    private static final int ENTRIES = 1_000_000;
+
+    /**
+     * Heap arities compared.
+     */
+    private static final int[] ARITIES = { 2, 4, 8 };
+
+    /**
+     * Number of rounds; the first ones warm up the JIT.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * No argument constructor--private to prevent instantiation.
+     */
+    private SortingMachine5aArityBenchmark() {
+    }
+
+    /**
+     * Sorts {@code values} with a {@code SortingMachine5a} of the given arity.
+     *
+     * @param values
+     *            the entries to sort
+     * @param arity
+     *            the heap arity
+     * @return a value depending on the extraction order, to keep the JIT
+     *         honest
+     */
+    private static long sort(Integer[] values, int arity) {
+        Comparator<Integer> order = Integer::compare;
+        SortingMachine<Integer> m = new SortingMachine5a<Integer>(order,
+                arity);
+        for (Integer x : values) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        long check = 0;
+        long position = 0;
+        while (m.size() > 0) {
+            check += position * m.removeFirst();
+            position++;
+        }
+        return check;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        final long seed = 42;
+        Random random = new Random(seed);
+        Integer[] values = new Integer[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            values[i] = random.nextInt();
+        }
+
+        long check = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            StringBuilder line = new StringBuilder("round " + round + ":");
+            for (int arity : ARITIES) {
+                long start = System.nanoTime();
+                check += sort(values, arity);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                line.append("  arity " + arity + " " + millis + " ms");
+            }
+            out.println(line.toString());
+        }
+        out.println("(checksum " + check + ")");
+
+        out.close();
+    }
+
+}
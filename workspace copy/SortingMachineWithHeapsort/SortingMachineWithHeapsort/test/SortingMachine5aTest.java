@@ -1,5 +1,10 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import java.util.Comparator;
 
+import org.junit.Test;
+
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
 
@@ -18,4 +23,117 @@ public final class SortingMachine5aTest extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /**
+     * Adds the given entries to the given empty machine and to a new reference
+     * machine, switches both to extraction mode, and checks that they produce
+     * the same entries in the same order.
+     *
+     * @param m
+     *            the machine under test, ordered by {@code String.compareTo}
+     * @param args
+     *            the entries
+     */
+    private void checkExtraction(SortingMachine<String> m, String... args) {
+        SortingMachine<String> mExpected = this
+                .constructorRef(String::compareTo);
+        for (String s : args) {
+            m.add(s);
+            mExpected.add(s);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        while (mExpected.size() > 0) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * test with checking level SAMPLED.
+     */
+    @Test
+    public void testCheckingSampled() {
+        SortingMachine5a.Checking saved = SortingMachine5a.checking();
+        SortingMachine5a.setChecking(SortingMachine5a.Checking.SAMPLED);
+        try {
+            /*
+             * Well over SAMPLE_PERIOD = 64 calls to conventionHolds
+             */
+            final int count = 200;
+            SortingMachine5a<String> m = new SortingMachine5a<String>(
+                    String::compareTo);
+            this.checkExtraction(m, scrambled(count));
+            assertEquals(SortingMachine5a.Checking.SAMPLED,
+                    SortingMachine5a.checking());
+            assertTrue(m.conventionChecks() >= 2 * count / 64);
+            assertTrue(m.conventionChecks() < 2 * count);
+        } finally {
+            SortingMachine5a.setChecking(saved);
+        }
+    }
+
+    /**
+     * test with checking level OFF.
+     */
+    @Test
+    public void testCheckingOff() {
+        SortingMachine5a.Checking saved = SortingMachine5a.checking();
+        SortingMachine5a.setChecking(SortingMachine5a.Checking.OFF);
+        try {
+            this.checkExtraction(this.constructorTest(String::compareTo),
+                    "red", "orange", "yellow", "green", "blue");
+        } finally {
+            SortingMachine5a.setChecking(saved);
+        }
+    }
+
+    /**
+     * Returns {@code count} pseudo-random two-digit strings, with repeats.
+     *
+     * @param count
+     *            the number of strings
+     * @return the strings
+     */
+    private static String[] scrambled(int count) {
+        final int step = 37;
+        final int range = 89;
+        String[] args = new String[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = Integer.toString(10 + (i * step) % range);
+        }
+        return args;
+    }
+
+    /**
+     * test with a 4-ary heap.
+     */
+    @Test
+    public void testArityFour() {
+        final int count = 150;
+        this.checkExtraction(new SortingMachine5a<String>(String::compareTo, 4),
+                scrambled(count));
+    }
+
+    /**
+     * test with an 8-ary heap.
+     */
+    @Test
+    public void testArityEight() {
+        final int count = 150;
+        this.checkExtraction(new SortingMachine5a<String>(String::compareTo, 8),
+                scrambled(count));
+    }
+
+    /**
+     * test that newInstance keeps the arity.
+     */
+    @Test
+    public void testNewInstanceKeepsArity() {
+        SortingMachine5a<String> m = new SortingMachine5a<String>(
+                String::compareTo, 4);
+        SortingMachine<String> mNew = m.newInstance();
+        assertEquals(4, ((SortingMachine5a<String>) mNew).arity());
+        this.checkExtraction(mNew, "f", "a", "e", "b", "d", "c", "a");
+    }
+
 }
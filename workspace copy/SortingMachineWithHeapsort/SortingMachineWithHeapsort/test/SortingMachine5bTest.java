@@ -0,0 +1,153 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5b}.
+ */
+public final class SortingMachine5bTest extends SortingMachineTest {
+
+    /**
+     * Limit used for the inherited tests, larger than any of their inputs.
+     */
+    private static final int LIMIT = 10_000;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5b<String>(order, LIMIT);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Adds {@code args} to a {@code SortingMachine5b} with the given limit,
+     * and checks that it ends up holding exactly {@code expected}, and then
+     * that it removes them in order.
+     *
+     * @param limit
+     *            the limit
+     * @param expected
+     *            the entries that should be kept
+     * @param args
+     *            the entries to add
+     */
+    private static void checkKept(int limit, String[] expected,
+            String... args) {
+        Comparator<String> order = String.CASE_INSENSITIVE_ORDER;
+        SortingMachine<String> m = new SortingMachine5b<String>(order, limit);
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(order);
+        for (String s : args) {
+            m.add(s);
+        }
+        for (String s : expected) {
+            mExpected.add(s);
+        }
+        assertEquals(mExpected, m);
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        while (mExpected.size() > 0) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * test keeping the first three of many entries.
+     */
+    @Test
+    public void testKeepsFirstEntries() {
+        checkKept(3, new String[] { "blue", "green", "orange" }, "red",
+                "orange", "yellow", "green", "blue", "purple", "violet",
+                "white");
+    }
+
+    /**
+     * test with limit one.
+     */
+    @Test
+    public void testLimitOne() {
+        checkKept(1, new String[] { "blue" }, "red", "orange", "yellow",
+                "green", "blue", "purple");
+    }
+
+    /**
+     * test that, of equivalent entries, the earlier ones are kept.
+     */
+    @Test
+    public void testTiesKeepEarlier() {
+        Comparator<String> order = String.CASE_INSENSITIVE_ORDER;
+        SortingMachine<String> m = new SortingMachine5b<String>(order, 2);
+        m.add("b");
+        m.add("a");
+        m.add("B");
+        m.changeToExtractionMode();
+        assertEquals("a", m.removeFirst());
+        assertEquals("b", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test that, of equivalent entries, the earlier ones are kept even when
+     * the later one ends up deeper in the heap than an entry to be dropped.
+     */
+    @Test
+    public void testTiesKeepEarlierWhenRootReplaced() {
+        Comparator<String> order = String.CASE_INSENSITIVE_ORDER;
+        SortingMachine<String> m = new SortingMachine5b<String>(order, 2);
+        m.add("b");
+        m.add("B");
+        m.add("a");
+        m.changeToExtractionMode();
+        assertEquals("a", m.removeFirst());
+        assertEquals("b", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test with more entries than the initial array holds.
+     */
+    @Test
+    public void testManyEntries() {
+        final int count = 500;
+        final int limit = 40;
+        final int step = 7919;
+        final int range = 10007;
+        String[] args = new String[count];
+        SortingMachine<String> all = new SortingMachine1L<String>(
+                String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < count; i++) {
+            args[i] = Integer.toString(range + (i * step) % range);
+            all.add(args[i]);
+        }
+        all.changeToExtractionMode();
+        String[] expected = new String[limit];
+        for (int i = 0; i < limit; i++) {
+            expected[i] = all.removeFirst();
+        }
+        checkKept(limit, expected, args);
+    }
+
+    /**
+     * test that newInstance keeps the limit.
+     */
+    @Test
+    public void testNewInstanceKeepsLimit() {
+        SortingMachine5b<String> m = new SortingMachine5b<String>(
+                String.CASE_INSENSITIVE_ORDER, 2);
+        SortingMachine<String> mNew = m.newInstance();
+        assertEquals(2, ((SortingMachine5b<String>) mNew).limit());
+        mNew.add("c");
+        mNew.add("b");
+        mNew.add("a");
+        assertEquals(2, mNew.size());
+    }
+
+}
@@ -0,0 +1,221 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine6}.
+ */
+public final class SortingMachine6Test extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine6<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * test with enough entries to take the parallel sort path.
+     */
+    @Test
+    public void testParallelSortPath() {
+        final int count = SortingMachine6.PARALLEL_THRESHOLD + 1;
+        final int step = 7919;
+        final int range = 10007;
+        String[] expected = new String[count];
+        SortingMachine<String> m = this.constructorTest(String::compareTo);
+        for (int i = 0; i < count; i++) {
+            expected[i] = Integer.toString(range + (i * step) % range);
+            m.add(expected[i]);
+        }
+        Arrays.sort(expected);
+        m.changeToExtractionMode();
+        for (String s : expected) {
+            assertEquals(s, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test that entries equivalent under the order come out in the order they
+     * were added.
+     */
+    @Test
+    public void testStable() {
+        SortingMachine<String> m = this
+                .constructorTest(String.CASE_INSENSITIVE_ORDER);
+        m.add("b");
+        m.add("A");
+        m.add("B");
+        m.add("a");
+        m.add("c");
+        m.add("b");
+        m.changeToExtractionMode();
+        assertEquals("A", m.removeFirst());
+        assertEquals("a", m.removeFirst());
+        assertEquals("b", m.removeFirst());
+        assertEquals("B", m.removeFirst());
+        assertEquals("b", m.removeFirst());
+        assertEquals("c", m.removeFirst());
+    }
+
+    /**
+     * Returns {@code count} distinct strings, of the same length, in
+     * increasing order except for exactly {@code descents} places where a
+     * string comes before the one just before it.
+     *
+     * @param count
+     *            the number of strings
+     * @param descents
+     *            the number of descents
+     * @return the strings
+     * @requires 0 <= 2 * descents <= count
+     */
+    private static String[] nearlySorted(int count, int descents) {
+        final int base = 100_000_000;
+        String[] args = new String[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = Integer.toString(base + i);
+        }
+        if (descents > 0) {
+            int stride = count / descents;
+            for (int j = 0; j < descents; j++) {
+                int k = j * stride;
+                String temp = args[k];
+                args[k] = args[k + 1];
+                args[k + 1] = temp;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Adds the given strings to a new {@code SortingMachine6} ordered by the
+     * given order, and checks which sort {@code changeToExtractionMode} picks
+     * and that it produces the strings in order.
+     *
+     * @param order
+     *            the order
+     * @param args
+     *            the strings
+     * @param parallel
+     *            whether the parallel sort is expected
+     */
+    private static void checkSort(Comparator<String> order, String[] args,
+            boolean parallel) {
+        SortingMachine6<String> m = new SortingMachine6<String>(order);
+        for (String s : args) {
+            m.add(s);
+        }
+        assertEquals(parallel, m.sortsInParallel());
+        String[] expected = Arrays.copyOf(args, args.length);
+        Arrays.sort(expected);
+        m.changeToExtractionMode();
+        for (String s : expected) {
+            assertEquals(s, m.removeFirst());
+        }
+    }
+
+    /**
+     * test that nearly sorted entries, at the parallel threshold and just
+     * below the ratio of descents, are sorted with few comparisons.
+     */
+    @Test
+    public void testNearlySortedIsCheap() {
+        final int count = SortingMachine6.PARALLEL_THRESHOLD;
+        final int descents = count / SortingMachine6.NEARLY_SORTED_RATIO - 1;
+        final int[] compares = new int[1];
+        Comparator<String> order = (a, b) -> {
+            compares[0]++;
+            return a.compareTo(b);
+        };
+        String[] args = nearlySorted(count, descents);
+        SortingMachine6<String> m = new SortingMachine6<String>(order);
+        for (String s : args) {
+            m.add(s);
+        }
+        assertFalse(m.sortsInParallel());
+        Arrays.sort(args);
+        compares[0] = 0;
+        m.changeToExtractionMode();
+        /*
+         * A full sort would take about count * log2(count) comparisons; with
+         * assertion checking on, the check that the result is sorted adds
+         * count.
+         */
+        assertTrue(compares[0] < 3 * count);
+        for (String s : args) {
+            assertEquals(s, m.removeFirst());
+        }
+    }
+
+    /**
+     * test that, even with assertion checking on, add makes at most one
+     * comparator call and removeFirst makes none.
+     */
+    @Test
+    public void testAddAndRemoveFirstAreCheap() {
+        final int count = 1000;
+        final int[] compares = new int[1];
+        Comparator<String> order = (a, b) -> {
+            compares[0]++;
+            return a.compareTo(b);
+        };
+        String[] args = nearlySorted(count, count / 2);
+        SortingMachine6<String> m = new SortingMachine6<String>(order);
+        for (String s : args) {
+            m.add(s);
+        }
+        assertTrue(compares[0] < count);
+        m.changeToExtractionMode();
+        compares[0] = 0;
+        while (m.size() > 0) {
+            m.removeFirst();
+        }
+        assertEquals(0, compares[0]);
+    }
+
+    /**
+     * test entries at the parallel threshold with exactly the ratio of
+     * descents, which are sorted in parallel.
+     */
+    @Test
+    public void testAtNearlySortedRatio() {
+        final int count = SortingMachine6.PARALLEL_THRESHOLD;
+        final int descents = count / SortingMachine6.NEARLY_SORTED_RATIO;
+        checkSort(String::compareTo, nearlySorted(count, descents), true);
+    }
+
+    /**
+     * test entries at the parallel threshold with one descent fewer than the
+     * ratio, which are not sorted in parallel.
+     */
+    @Test
+    public void testBelowNearlySortedRatio() {
+        final int count = SortingMachine6.PARALLEL_THRESHOLD;
+        final int descents = count / SortingMachine6.NEARLY_SORTED_RATIO - 1;
+        checkSort(String::compareTo, nearlySorted(count, descents), false);
+    }
+
+    /**
+     * test entries just below the parallel threshold with many descents,
+     * which are not sorted in parallel.
+     */
+    @Test
+    public void testBelowParallelThreshold() {
+        final int count = SortingMachine6.PARALLEL_THRESHOLD - 1;
+        checkSort(String::compareTo, nearlySorted(count, count / 2), false);
+    }
+
+}
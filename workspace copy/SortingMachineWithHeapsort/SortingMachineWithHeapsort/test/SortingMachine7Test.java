@@ -0,0 +1,210 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine7}.
+ */
+public final class SortingMachine7Test extends SortingMachineTest {
+
+    /**
+     * Run capacity used for the inherited tests, small enough that most of
+     * them spill runs to files.
+     */
+    private static final int RUN_CAPACITY = 2;
+
+    /**
+     * Directory for the run files of this test's machines, deleted after the
+     * test.
+     */
+    @Rule
+    public TemporaryFolder runDirectory = new TemporaryFolder();
+
+    /**
+     * Machines created by this test, closed after it.
+     */
+    private final List<SortingMachine7<String>> machines = new ArrayList<>();
+
+    /**
+     * Returns a new machine, spilling to this test's run directory, that is
+     * closed after the test.
+     *
+     * @param order
+     *            the order
+     * @param capacity
+     *            the run capacity
+     * @return the machine
+     */
+    private SortingMachine7<String> newMachine(Comparator<String> order,
+            int capacity) {
+        SortingMachine7<String> m = new SortingMachine7<String>(order,
+                SortingMachine7.stringCodec(), capacity,
+                this.runDirectory.getRoot());
+        this.machines.add(m);
+        return m;
+    }
+
+    /**
+     * Closes every machine created by this test, deleting its run files.
+     */
+    @After
+    public void closeMachines() {
+        for (SortingMachine7<String> m : this.machines) {
+            m.close();
+        }
+    }
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return this.newMachine(order, RUN_CAPACITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Returns the number of run files in this test's run directory.
+     *
+     * @return the number of run files
+     */
+    private int runFileCount() {
+        File dir = this.runDirectory.getRoot();
+        String[] names = dir.list((d, name) -> name
+                .startsWith("SortingMachine7-"));
+        return names.length;
+    }
+
+    /**
+     * Returns {@code count} pseudo-random strings, with repeats.
+     *
+     * @param count
+     *            the number of strings
+     * @return the strings
+     */
+    private static String[] scrambled(int count) {
+        final int step = 7919;
+        final int range = 10007;
+        String[] args = new String[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = Integer.toString(range + (i * step) % range);
+        }
+        return args;
+    }
+
+    /**
+     * test merging many runs, with part of the last one left in memory.
+     */
+    @Test
+    public void testManyRuns() {
+        final int count = 500;
+        final int capacity = 7;
+        String[] expected = scrambled(count);
+        SortingMachine7<String> m = this
+                .newMachine(String::compareTo, capacity);
+        for (String s : expected) {
+            m.add(s);
+        }
+        Arrays.sort(expected);
+        m.changeToExtractionMode();
+        for (String s : expected) {
+            assertEquals(s, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test that iterating part way through extraction visits the entries
+     * left.
+     */
+    @Test
+    public void testIteratorDuringExtraction() {
+        final int count = 30;
+        final int capacity = 4;
+        final int removed = 11;
+        String[] args = scrambled(count);
+        SortingMachine<String> m = this
+                .newMachine(String::compareTo, capacity);
+        SortingMachine<String> mExpected = this
+                .constructorRef(String::compareTo);
+        for (String s : args) {
+            m.add(s);
+            mExpected.add(s);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        for (int i = 0; i < removed; i++) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * test that run files are deleted once read, and by close.
+     */
+    @Test
+    public void testRunFilesDeleted() {
+        final int count = 20;
+        final int capacity = 3;
+        SortingMachine7<String> m = this
+                .newMachine(String::compareTo, capacity);
+        for (String s : scrambled(count)) {
+            m.add(s);
+        }
+        assertEquals(count / capacity, this.runFileCount());
+        m.close();
+        assertEquals(0, this.runFileCount());
+        for (String s : scrambled(count)) {
+            m.add(s);
+        }
+        m.changeToExtractionMode();
+        while (m.size() > 0) {
+            m.removeFirst();
+        }
+        assertEquals(0, this.runFileCount());
+    }
+
+    /**
+     * test that run files are deleted by clear and by transferFrom, both
+     * from the machine transferred into and from the one transferred from.
+     */
+    @Test
+    public void testRunFilesDeletedByClearAndTransfer() {
+        final int count = 20;
+        final int capacity = 3;
+        SortingMachine7<String> m1 = this
+                .newMachine(String::compareTo, capacity);
+        SortingMachine7<String> m2 = this
+                .newMachine(String::compareTo, capacity);
+        for (String s : scrambled(count)) {
+            m1.add(s);
+            m2.add(s);
+        }
+        assertEquals(2 * (count / capacity), this.runFileCount());
+        m1.clear();
+        assertEquals(count / capacity, this.runFileCount());
+        for (String s : scrambled(count)) {
+            m1.add(s);
+        }
+        m1.transferFrom(m2);
+        assertEquals(count / capacity, this.runFileCount());
+        assertEquals(count, m1.size());
+        assertEquals(0, m2.size());
+        m1.close();
+        assertEquals(0, this.runFileCount());
+    }
+
+}
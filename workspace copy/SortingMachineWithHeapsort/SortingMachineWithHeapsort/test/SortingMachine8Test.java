@@ -0,0 +1,127 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine8}.
+ */
+public final class SortingMachine8Test extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine8<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * test insert during extraction mode.
+     */
+    @Test
+    public void testInsertDuringExtraction() {
+        SortingMachine8<String> m = new SortingMachine8<String>(
+                String::compareTo);
+        m.add("m");
+        m.add("c");
+        m.changeToExtractionMode();
+        m.insert("a");
+        assertEquals("a", m.removeFirst());
+        assertEquals("c", m.removeFirst());
+        m.insert("z");
+        m.insert("b");
+        assertEquals("b", m.removeFirst());
+        assertEquals("m", m.removeFirst());
+        assertEquals("z", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test interleaved insert and removeFirst against
+     * {@code java.util.PriorityQueue}.
+     */
+    @Test
+    public void testInterleaved() {
+        final int rounds = 300;
+        final int step = 7919;
+        final int range = 10007;
+        SortingMachine8<String> m = new SortingMachine8<String>(
+                String::compareTo);
+        m.changeToExtractionMode();
+        PriorityQueue<String> expected = new PriorityQueue<String>();
+        for (int i = 0; i < rounds; i++) {
+            String s = Integer.toString(range + (i * step) % range);
+            m.insert(s);
+            expected.add(s);
+            if (i % 3 == 2) {
+                assertEquals(expected.poll(), m.removeFirst());
+            }
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll(), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * test decreaseKey, on the root and on other entries.
+     */
+    @Test
+    public void testDecreaseKey() {
+        SortingMachine8<String> m = new SortingMachine8<String>(
+                String::compareTo);
+        SortingMachine8.Handle<String> hd = m.insert("d");
+        m.insert("f");
+        SortingMachine8.Handle<String> hx = m.insert("x");
+        m.insert("k");
+        m.decreaseKey(hx, "b");
+        m.decreaseKey(hx, "a");
+        assertEquals("a", hx.entry());
+        m.decreaseKey(hd, "c");
+        m.changeToExtractionMode();
+        assertTrue(hx.isInMachine());
+        assertEquals("a", m.removeFirst());
+        assertFalse(hx.isInMachine());
+        assertEquals("c", m.removeFirst());
+        assertEquals("f", m.removeFirst());
+        assertEquals("k", m.removeFirst());
+    }
+
+    /**
+     * test meld, and that handles from the melded machine still work.
+     */
+    @Test
+    public void testMeld() {
+        SortingMachine8<String> m = new SortingMachine8<String>(
+                String::compareTo);
+        SortingMachine8<String> other = new SortingMachine8<String>(
+                String::compareTo);
+        m.add("e");
+        m.add("b");
+        other.add("d");
+        SortingMachine8.Handle<String> hz = other.insert("z");
+        other.add("a");
+        m.changeToExtractionMode();
+        m.meld(other);
+        assertEquals(0, other.size());
+        assertTrue(other.isInInsertionMode());
+        assertEquals(5, m.size());
+        m.decreaseKey(hz, "c");
+        assertEquals("a", m.removeFirst());
+        assertEquals("b", m.removeFirst());
+        assertEquals("c", m.removeFirst());
+        assertEquals("d", m.removeFirst());
+        assertEquals("e", m.removeFirst());
+    }
+
+}
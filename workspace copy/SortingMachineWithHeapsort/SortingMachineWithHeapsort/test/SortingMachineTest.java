@@ -367,4 +367,34 @@ public abstract class SortingMachineTest {
         assertEquals(size, sizeExpected);
     }
 
+    // --------------- larger input tests ---------------
+
+    /**
+     * test with m = (ORDER, true, <500 pseudo-random strings, with
+     * duplicates>), then changeToExtractionMode() and removeFirst() until empty.
+     */
+    @Test
+    public final void testRemoveFirstManyEntries() {
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        final int count = 500;
+        final int step = 7919;
+        final int offset = 13;
+        final int range = 1009;
+        final int start = 17;
+        int seed = start;
+        for (int i = 0; i < count; i++) {
+            seed = (seed * step + offset) % range;
+            m.add("entry" + seed);
+            mExpected.add("entry" + seed);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        assertEquals(mExpected, m);
+        while (mExpected.size() > 0) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        assertEquals(mExpected, m);
+    }
+
 }